@@ -0,0 +1,110 @@
+package com.io.querydsl.benchmark;
+
+import com.io.querydsl.QuerydslApplication;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.persistence.Member;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 벤치마크 공용 상태.
+ * 인메모리 H2 로 애플리케이션 컨텍스트를 띄우고 members 개수만큼 회원을 적재한다.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    static final int TEAM_COUNT = 100;
+    static final int MAX_AGE = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int members;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=bench",
+                     "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                     "--spring.jpa.properties.hibernate.format_sql=false",
+                     "--logging.level.org.hibernate.SQL=warn",
+                     "--logging.level.root=warn");
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return readOnly.execute(status -> work.get());
+    }
+
+    // search1 은 username 이 필수이므로 네 구현 모두 username 까지 채운 조건으로 비교한다.
+    public MemberSearchCondition condition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member30");
+        condition.setTeamName("team31");
+        condition.setAgeGoe(30);
+        condition.setAgeLoe(31);
+        return condition;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> teams = new ArrayList<>();
+        for (long i = 1; i <= TEAM_COUNT; i++) {
+            teams.add(new Object[]{i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teams);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> grams = new ArrayList<>(BATCH_SIZE);
+        for (long i = 1; i <= members; i++) {
+            String username = "member" + i;
+            batch.add(new Object[]{i, username, (int) (i % MAX_AGE), i % TEAM_COUNT + 1});
+            for (String gram : Member.usernameGrams(username)) {
+                grams.add(new Object[]{i, gram});
+            }
+            if (batch.size() == BATCH_SIZE) {
+                flush(jdbcTemplate, batch, grams);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(jdbcTemplate, batch, grams);
+        }
+    }
+
+    // JDBC 로 넣으므로 Member.setUsername 이 채우는 3-gram 색인도 직접 넣는다.
+    private void flush(JdbcTemplate jdbcTemplate, List<Object[]> batch, List<Object[]> grams) {
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", batch);
+        jdbcTemplate.batchUpdate("insert into member_username_gram (member_id, gram) values (?, ?)", grams);
+        batch.clear();
+        grams.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package com.io.querydsl.benchmark;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.MemberJpaRepository;
+import com.io.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 조건을 네 가지 검색 구현으로 실행해 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    private MemberJpaRepository memberJpaRepository;
+    private MemberRepository memberRepository;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        condition = context.condition();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder(BenchmarkContext context) {
+        return context.inTransaction(() -> memberJpaRepository.searchByBuilder(condition));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search1(BenchmarkContext context) {
+        return context.inTransaction(() -> memberJpaRepository.search1(condition));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search2(BenchmarkContext context) {
+        return context.inTransaction(() -> memberJpaRepository.search2(condition));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchMember(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMember(condition));
+    }
+}
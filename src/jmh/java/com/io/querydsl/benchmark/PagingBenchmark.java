@@ -0,0 +1,82 @@
+package com.io.querydsl.benchmark;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.LambdaProjection;
+import com.io.querydsl.repository.MemberRepository;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static com.io.querydsl.persistence.QTeam.team;
+
+/**
+ * 페이징 방식 비교 - 컨텐츠만 조회(fetch), fetchResults, 컨텐츠/카운트 분리 조회.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+
+    private final Pageable pageable = PageRequest.of(1, 20);
+
+    private JPAQueryFactory queryFactory;
+    private MemberRepository memberRepository;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        queryFactory = new JPAQueryFactory(context.getBean(EntityManager.class));
+        memberRepository = context.getBean(MemberRepository.class);
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> fetch(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.goe(condition.getAgeGoe()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch());
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> fetchResults(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMemberPagingSimple(condition, pageable));
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> splitCount(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMemberPagingComplex(condition, pageable));
+    }
+}
@@ -0,0 +1,101 @@
+package com.io.querydsl.benchmark;
+
+import com.io.querydsl.dto.MemberDto;
+import com.io.querydsl.dto.QMemberDto;
+import com.io.querydsl.repository.LambdaProjection;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.io.querydsl.persistence.QMember.member;
+
+/**
+ * DTO 프로젝션 방식(setter, 필드, 생성자, @QueryProjection, 생성자 참조)별 비용을 비교한다.
+ * 쿼리는 같고 결과 행 ROWS 개를 DTO 로 만드는 방식만 다르다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private JPAQueryFactory queryFactory;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        queryFactory = new JPAQueryFactory(context.getBean(EntityManager.class));
+    }
+
+    @Benchmark
+    public List<MemberDto> bean(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(Projections.bean(MemberDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> fields(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(Projections.fields(MemberDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(Projections.constructor(MemberDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(new QMemberDto(
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> lambdaProjection(BenchmarkContext context) {
+        return context.inTransaction(() -> queryFactory
+                .select(LambdaProjection.of(MemberDto.class, MemberDto::new,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+}
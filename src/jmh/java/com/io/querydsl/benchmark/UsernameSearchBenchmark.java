@@ -0,0 +1,87 @@
+package com.io.querydsl.benchmark;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.domain.UsernameMatch;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.MemberRepository;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.io.querydsl.persistence.QMember.member;
+
+/**
+ * username 비교 방식별 검색 시간을 회원 수(members)에 따라 비교한다.
+ * containsLikeScan 은 색인 없이 like '%x%' 로 전체를 훑는 기준선이다.
+ * 3-gram 조회 비용은 검색어의 3-gram 을 가진 회원 수를 따라가지만 고정 비용이 커서, 1천 명에서는 like 가 더 빠르다.
+ * 두 방식이 역전되는 회원 수는 members=10000 결과로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameSearchBenchmark {
+
+    private MemberRepository memberRepository;
+    private EntityManager em;
+    private MemberSearchCondition exact;
+    private MemberSearchCondition prefix;
+    private MemberSearchCondition contains;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+
+        String target = "member" + (context.members / 2 + 1);
+        exact = condition(target, UsernameMatch.EXACT);
+        prefix = condition(target, UsernameMatch.PREFIX);
+        contains = condition(target.substring("member".length()), UsernameMatch.CONTAINS);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> exact(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMember(exact));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> prefix(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMember(prefix));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> containsGramIndex(BenchmarkContext context) {
+        return context.inTransaction(() -> memberRepository.searchMember(contains));
+    }
+
+    @Benchmark
+    public List<Long> containsLikeScan(BenchmarkContext context) {
+        return context.inTransaction(() -> new JPAQueryFactory(em)
+                .select(member.id)
+                .from(member)
+                .where(member.username.contains(contains.getUsername()))
+                .fetch());
+    }
+
+    private MemberSearchCondition condition(String username, UsernameMatch match) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setUsernameMatch(match);
+        return condition;
+    }
+}
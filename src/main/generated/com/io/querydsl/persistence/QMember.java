@@ -30,6 +30,8 @@ public class QMember extends EntityPathBase<Member> {
 
     public final StringPath username = createString("username");
 
+    public final SetPath<String, StringPath> usernameGrams = this.<String, StringPath>createSet("usernameGrams", String.class, StringPath.class, PathInits.DIRECT2);
+
     public QMember(String variable) {
         this(Member.class, forVariable(variable), INITS);
     }
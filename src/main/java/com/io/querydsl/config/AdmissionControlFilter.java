@@ -0,0 +1,133 @@
+package com.io.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DB 커넥션 풀 크기에 맞춘 요청 허용(admission) 제어.
+ * 가상 스레드에서는 요청 스레드 수가 제한되지 않으므로, 풀 앞에서 대기가 쌓이지 않도록
+ * 허용 수를 넘는 요청은 대기 예산(waitBudget) 동안만 기다리고 이후에는 503 으로 거절한다.
+ * 내보내기(/members/export)는 청크마다 커넥션을 잠깐씩만 쓰면서 응답 내내 허용을 잡아 검색을 막으므로 excludedPaths 로 뺀다.
+ * 결과 스트림을 여는 /members/v1/stream 은 응답 내내 커넥션 하나를 잡으므로 허용 제어를 그대로 거친다.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long waitBudgetNanos;
+    private final Set<String> excludedPaths;
+    private final Timer admittedTimer;
+    private final Timer rejectedTimer;
+    private final Counter rejectedCounter;
+
+    public AdmissionControlFilter(int maxPermits, Duration waitBudget, Collection<String> excludedPaths,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxPermits, true);
+        this.waitBudgetNanos = waitBudget.toNanos();
+        this.excludedPaths = Set.copyOf(excludedPaths);
+        this.admittedTimer = Timer.builder("member.admission.queue")
+                .description("time spent waiting for a database admission permit")
+                .tag("outcome", "admitted")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedTimer = Timer.builder("member.admission.queue")
+                .description("time spent waiting for a database admission permit")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("member.admission.rejected")
+                .description("requests rejected with 503 because the wait budget was exceeded")
+                .register(meterRegistry);
+        Gauge.builder("member.admission.in-flight", this.permits, p -> maxPermits - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excludedPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitBudgetNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        long waited = System.nanoTime() - startedAt;
+
+        if (!acquired) {
+            rejectedTimer.record(waited, TimeUnit.NANOSECONDS);
+            rejectedCounter.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "too many concurrent searches");
+            return;
+        }
+
+        admittedTimer.record(waited, TimeUnit.NANOSECONDS);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // 스트리밍 응답은 비동기 처리가 끝날 때 허용을 반납한다.
+                request.getAsyncContext().addListener(new ReleasingListener());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    private class ReleasingListener implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
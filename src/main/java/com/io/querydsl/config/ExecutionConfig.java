@@ -0,0 +1,89 @@
+package com.io.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 요청 실행 모드 설정 - 가상 스레드와 DB 커넥션 풀 기준의 요청 허용 제어.
+ */
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+public class ExecutionConfig {
+
+    // Tomcat 요청 처리와 MVC 비동기 처리가 함께 쓰는 가상 스레드 실행기. 컨텍스트가 닫힐 때 남은 작업을 기다리고 닫는다.
+    // (웹 서버는 빈이 소멸되기 전에 멈추므로 새 요청은 더 들어오지 않는다)
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "member.execution", name = "virtual-threads", havingValue = "true", matchIfMissing = true)
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "member.execution", name = "virtual-threads", havingValue = "true", matchIfMissing = true)
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "member.execution", name = "virtual-threads", havingValue = "true", matchIfMissing = true)
+    public WebMvcConfigurer virtualThreadAsyncSupport(ExecutorService virtualThreadExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "member.execution.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ExecutionProperties properties,
+                                                                               MemberPagingProperties pagingProperties,
+                                                                               DataSource dataSource,
+                                                                               MeterRegistry meterRegistry) {
+        ExecutionProperties.Admission admission = properties.getAdmission();
+        int permits = admission.getPermits() > 0
+                ? admission.getPermits()
+                : defaultPermits(poolSize(dataSource), pagingProperties.isConcurrent());
+
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(permits, admission.getWaitBudget(), admission.getExcludedPaths(), meterRegistry));
+        registration.addUrlPatterns("/members/*");
+        return registration;
+    }
+
+    // 동시 페이징을 켜면 /members/v3 요청 하나가 컨텐츠/카운트 쿼리로 커넥션을 2개 잡으므로 풀의 절반만 허용한다.
+    static int defaultPermits(int poolSize, boolean concurrentPaging) {
+        return concurrentPaging ? Math.max(1, poolSize / 2) : poolSize;
+    }
+
+    // Hikari 가 아니거나 풀 크기를 지정하지 않았으면 Hikari 기본 풀 크기(10)를 쓴다.
+    // (필터는 풀이 시작되기 전에 만들어지므로, 지정하지 않은 maximumPoolSize 는 아직 -1 이다)
+    // replica 라우팅을 켜면 LazyConnectionDataSourceProxy 를 벗겨 primary 와 replica 풀 크기를 더한다.
+    static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof LazyConnectionDataSourceProxy proxy && proxy.getTargetDataSource() != null) {
+            return poolSize(proxy.getTargetDataSource());
+        }
+        if (dataSource instanceof ReplicaRoutingDataSource routing) {
+            return routing.targets().stream().mapToInt(ExecutionConfig::poolSize).sum();
+        }
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
@@ -0,0 +1,30 @@
+package com.io.querydsl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "member.execution")
+public class ExecutionProperties {
+
+    // Tomcat 요청 처리와 MVC 비동기 처리(스트리밍 응답)를 가상 스레드에서 실행한다.
+    private boolean virtualThreads = true;
+
+    private final Admission admission = new Admission();
+
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+        // 동시에 DB 작업을 할 수 있는 요청 수. 0 이면 커넥션 풀 크기(동시 페이징을 켜면 그 절반)를 쓴다.
+        private int permits = 0;
+        // 허용을 기다릴 수 있는 최대 시간. 넘기면 503 으로 바로 거절한다.
+        private Duration waitBudget = Duration.ofMillis(200);
+        // 허용 제어를 거치지 않는 경로. 청크마다 트랜잭션을 여닫아 커넥션을 잠깐씩만 쓰는 응답만 넣는다.
+        // (/members/v1/stream 은 응답 내내 커넥션 하나를 잡고 있으므로 허용 제어를 거쳐야 한다)
+        private List<String> excludedPaths = new ArrayList<>(List.of("/members/export"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.io.querydsl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "member.paging")
+public class MemberPagingProperties {
+
+    // true 면 /members/v3 가 컨텐츠 쿼리와 카운트 쿼리를 동시에 실행한다.
+    private boolean concurrent = false;
+    // 두 쿼리를 합친 페이지 조회 전체의 제한 시간
+    private Duration timeout = Duration.ofSeconds(3);
+    private int corePoolSize = 8;
+    private int maxPoolSize = 32;
+    private int queueCapacity = 100;
+}
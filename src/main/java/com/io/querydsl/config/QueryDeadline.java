@@ -0,0 +1,130 @@
+package com.io.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 요청 하나가 DB 쿼리에 쓸 수 있는 시간 예산(deadline).
+ * 필터가 요청 스레드에 묶어 두면 리포지토리는 쿼리를 실행하기 직전에 남은 시간을 쿼리 타임아웃으로 건다.
+ * 그래서 같은 요청에서 뒤에 실행되는 쿼리(예: count 쿼리)는 앞의 쿼리가 쓰고 남은 시간만 받는다.
+ */
+public final class QueryDeadline {
+
+    public static final String ATTRIBUTE = QueryDeadline.class.getName();
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final Duration budget;
+    private final long deadlineNanos;
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public QueryDeadline(String endpoint, Duration budget) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(QueryDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // 현재 요청의 남은 시간을 쿼리 타임아웃 힌트로 건다. 묶인 deadline 이 없으면 그대로 둔다.
+    public static <T> JPAQuery<T> applyTo(JPAQuery<T> query) {
+        QueryDeadline deadline = CURRENT.get();
+        return deadline != null ? query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, deadline.timeoutHint()) : query;
+    }
+
+    public static Query applyTo(Query query) {
+        QueryDeadline deadline = CURRENT.get();
+        return deadline != null ? query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, deadline.timeoutHint()) : query;
+    }
+
+    // 주어진 제한 시간과 현재 요청의 남은 시간 중 짧은 쪽
+    public static Duration cap(Duration timeout) {
+        QueryDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        Duration remaining = deadline.checkRemaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    // 요청이 중단되면 실행 중인 쿼리를 취소할 동작(예: Session#cancelQuery)을 등록한다.
+    public static void onCancel(Runnable hook) {
+        QueryDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.cancelHooks.add(hook);
+        }
+    }
+
+    // jakarta.persistence.query.timeout 은 ms 단위지만 Hibernate 는 초 단위로 반올림해 Statement#setQueryTimeout 에 넘긴다.
+    // 그대로 넘기면 500ms 미만은 0(무제한)이 되므로 초 단위로 올려서 넘긴다.
+    public static int toTimeoutHint(Duration timeout) {
+        long seconds = Math.max(1, (timeout.toMillis() + 999) / 1000);
+        return (int) Math.min(Integer.MAX_VALUE / 1000, seconds) * 1000;
+    }
+
+    int timeoutHint() {
+        return toTimeoutHint(checkRemaining());
+    }
+
+    // 등록된 취소 동작을 한 번만 실행한다. 이미 취소됐으면 false
+    public boolean cancel() {
+        if (!cancelled.compareAndSet(false, true)) {
+            return false;
+        }
+        for (Runnable hook : cancelHooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException ignored) {
+                // 이미 끝난 쿼리나 닫힌 세션은 취소할 것이 없다.
+            }
+        }
+        return true;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    // 이미 취소됐거나 시간을 다 썼으면 DB 에 가지 않고 바로 실패시킨다.
+    private Duration checkRemaining() {
+        if (cancelled.get()) {
+            throw new QueryTimeoutException(endpoint + " was cancelled");
+        }
+        Duration remaining = remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new QueryTimeoutException(endpoint + " exceeded its query budget of " + budget);
+        }
+        return remaining;
+    }
+}
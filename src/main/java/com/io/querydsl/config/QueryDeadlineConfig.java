@@ -0,0 +1,46 @@
+package com.io.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 요청별 쿼리 시간 예산 설정 - 남은 시간을 쿼리 타임아웃으로 걸고, 중단된 스트리밍 요청의 쿼리를 취소한다.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryDeadlineProperties.class)
+public class QueryDeadlineConfig {
+
+    @Bean
+    public QueryDeadlineMetrics queryDeadlineMetrics(MeterRegistry meterRegistry) {
+        return new QueryDeadlineMetrics(meterRegistry);
+    }
+
+    // 허용 제어 대기 시간도 예산에 포함되도록 AdmissionControlFilter 보다 먼저 실행한다.
+    @Bean
+    @ConditionalOnProperty(prefix = "member.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<QueryDeadlineFilter> queryDeadlineFilter(QueryDeadlineProperties properties) {
+        FilterRegistrationBean<QueryDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new QueryDeadlineFilter(properties));
+        registration.addUrlPatterns("/members/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "member.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public WebMvcConfigurer queryDeadlineAsyncSupport(QueryDeadlineMetrics metrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new QueryDeadlineInterceptor(metrics));
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.io.querydsl.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * 요청이 들어온 시점부터 경로별 예산만큼의 QueryDeadline 을 요청 스레드에 묶는다.
+ * 스트리밍 응답처럼 비동기로 이어지는 요청은 요청 속성으로 넘겨 QueryDeadlineInterceptor 가 다시 묶는다.
+ */
+public class QueryDeadlineFilter extends OncePerRequestFilter {
+
+    private final QueryDeadlineProperties properties;
+
+    public QueryDeadlineFilter(QueryDeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        QueryDeadline deadline = new QueryDeadline(endpoint, properties.budgetFor(endpoint));
+        request.setAttribute(QueryDeadline.ATTRIBUTE, deadline);
+        QueryDeadline.bind(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryDeadline.clear();
+        }
+    }
+}
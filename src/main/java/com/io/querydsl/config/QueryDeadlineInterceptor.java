@@ -0,0 +1,56 @@
+package com.io.querydsl.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 비동기 처리(StreamingResponseBody 등)를 실행하는 스레드에 요청의 QueryDeadline 을 묶고,
+ * 클라이언트 연결이 끊기거나(onError) 비동기 제한 시간을 넘기면(onTimeout) 실행 중인 쿼리를 취소한다.
+ */
+public class QueryDeadlineInterceptor implements CallableProcessingInterceptor {
+
+    private final QueryDeadlineMetrics metrics;
+
+    public QueryDeadlineInterceptor(QueryDeadlineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        QueryDeadline deadline = deadline(request);
+        if (deadline != null) {
+            QueryDeadline.bind(deadline);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        cancel(request);
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        cancel(request);
+        return RESULT_NONE;
+    }
+
+    private void cancel(NativeWebRequest request) {
+        QueryDeadline deadline = deadline(request);
+        if (deadline != null && deadline.cancel()) {
+            metrics.cancelled(deadline.getEndpoint());
+        }
+    }
+
+    private QueryDeadline deadline(NativeWebRequest request) {
+        return (QueryDeadline) request.getAttribute(QueryDeadline.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
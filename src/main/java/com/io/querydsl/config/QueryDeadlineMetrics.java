@@ -0,0 +1,32 @@
+package com.io.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 쿼리 예산 초과(timeout)와 요청 중단으로 인한 쿼리 취소(cancelled)를 경로별로 센다.
+ */
+public class QueryDeadlineMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryDeadlineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void timedOut(String endpoint) {
+        counter(endpoint, "timeout").increment();
+    }
+
+    public void cancelled(String endpoint) {
+        counter(endpoint, "cancelled").increment();
+    }
+
+    private Counter counter(String endpoint, String outcome) {
+        return Counter.builder("member.query.deadline")
+                .description("queries stopped because the request ran out of its query budget or was aborted")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
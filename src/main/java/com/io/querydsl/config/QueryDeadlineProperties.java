@@ -0,0 +1,24 @@
+package com.io.querydsl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "member.deadline")
+public class QueryDeadlineProperties {
+
+    // true 면 /members/* 요청마다 쿼리 시간 예산을 두고 남은 시간을 쿼리 타임아웃으로 건다.
+    private boolean enabled = true;
+    // endpoints 에 없는 경로의 예산
+    private Duration defaultBudget = Duration.ofSeconds(5);
+    // 경로별 예산 (예: /members/v1/stream: 60s)
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+    public Duration budgetFor(String path) {
+        return endpoints.getOrDefault(path, defaultBudget);
+    }
+}
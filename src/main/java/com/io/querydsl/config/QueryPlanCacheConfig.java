@@ -0,0 +1,25 @@
+package com.io.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate 쿼리 플랜(해석) 캐시 설정.
+ * MemberSearchQueryCache 는 조건 형태마다 같은 JPQL 문자열을 만들므로 두 번째 호출부터 플랜 캐시에 적중한다.
+ * application.yml 이 아닌 여기서 설정해 main 과 test 설정 파일에 같은 값을 따로 두지 않는다.
+ */
+@Configuration
+public class QueryPlanCacheConfig {
+
+    public static final int PLAN_CACHE_MAX_SIZE = 2048;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryPlanCacheCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.QUERY_PLAN_CACHE_ENABLED, true);
+            hibernateProperties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, PLAN_CACHE_MAX_SIZE);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.io.querydsl.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 세션 헤더 값을 ReplicaRoutingDataSource 에 알려 요청 간 read-your-writes 를 판단하게 한다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String sessionHeader;
+
+    public ReadYourWritesFilter(String sessionHeader) {
+        this.sessionHeader = sessionHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String session = request.getHeader(sessionHeader);
+        ReplicaRoutingDataSource.bindSession(hasText(session) ? session : null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearSession();
+        }
+    }
+}
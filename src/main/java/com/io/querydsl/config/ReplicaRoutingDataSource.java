@@ -0,0 +1,294 @@
+package com.io.querydsl.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 정상(healthy)인 replica 에 라운드 로빈으로, 나머지는 primary 로 보낸다.
+ * 트랜잭션의 읽기 전용 여부는 트랜잭션이 시작된 뒤에 정해지므로 LazyConnectionDataSourceProxy 로 감싸 첫 SQL 시점에 고르게 한다.
+ * <ul>
+ *     <li>replica 는 주기적으로 확인하고, 커넥션을 얻지 못하면 바로 제외한다. 정상인 replica 가 없으면 primary 로 읽는다.</li>
+ *     <li>쓰기 트랜잭션이 커밋되면 readYourWritesWindow 동안 같은 세션(헤더) 또는 같은 스레드의 읽기는 primary 로 보낸다.
+ *     다른 스레드에 맡긴 쿼리(동시 페이징)는 propagate 로 감싸면 맡긴 스레드의 세션과 쓰기 시각을 따른다.</li>
+ * </ul>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<String> SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<Long> THREAD_LAST_WRITE = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String validationQuery;
+    private final long readYourWritesNanos;
+    private final Cache<String, Long> sessionWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    // 트랜잭션에 쓰기 기록 동기화를 등록했는지 표시하는 리소스 키
+    private final Object writeMarker = new Object();
+    private final ScheduledExecutorService healthChecker;
+    private final Map<String, Counter> routes = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    String validationQuery, Duration healthCheckInterval, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.validationQuery = validationQuery;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.sessionWrites = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        checkHealth();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-health-check")
+                .daemon(true)
+                .factory());
+        long interval = healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // 요청 간 read-your-writes 를 위한 세션 키. (요청이 끝나면 clearSession)
+    public static void bindSession(String sessionKey) {
+        SESSION.set(sessionKey);
+    }
+
+    public static void clearSession() {
+        SESSION.remove();
+        THREAD_LAST_WRITE.remove();
+    }
+
+    // 작업을 제출한 스레드의 세션 키와 마지막 쓰기 시각을 작업을 실행하는 스레드에서 쓴다. (TaskDecorator 용)
+    public static Runnable propagate(Runnable task) {
+        String session = SESSION.get();
+        Long lastWrite = THREAD_LAST_WRITE.get();
+        return () -> {
+            String previousSession = SESSION.get();
+            Long previousWrite = THREAD_LAST_WRITE.get();
+            set(SESSION, session);
+            set(THREAD_LAST_WRITE, lastWrite);
+            try {
+                task.run();
+            } finally {
+                set(SESSION, previousSession);
+                set(THREAD_LAST_WRITE, previousWrite);
+            }
+        };
+    }
+
+    // 현재 스레드(또는 세션)의 읽기가 read-your-writes 때문에 primary 로 가는지.
+    // 검색 결과 캐시와 같은 검색 합치기는 replica 에서 읽은 결과를 나눠 주므로 이때는 거치지 않는다.
+    public boolean readsFromPrimary() {
+        return recentlyWrote();
+    }
+
+    // 쓰기가 커밋된 뒤 replica 가 따라잡을 때까지 기다린다고 보는 시간
+    public Duration getReadYourWritesWindow() {
+        return Duration.ofNanos(readYourWritesNanos);
+    }
+
+    // 커넥션 풀 크기를 나눌 수 있도록 실제 DataSource 들을 알려 준다. (primary 가 먼저)
+    public List<DataSource> targets() {
+        List<DataSource> targets = new ArrayList<>();
+        targets.add(primary);
+        replicas.forEach(replica -> targets.add(replica.dataSource));
+        return targets;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return primary("read-write");
+        }
+        if (recentlyWrote()) {
+            return primary("read-your-writes");
+        }
+
+        Replica replica = nextHealthyReplica();
+        if (replica == null) {
+            return primary("no-healthy-replica");
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            route(replica.name, "read");
+            return connection;
+        } catch (SQLException e) {
+            replica.markDown(e);
+            return primary("replica-failed");
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("ReplicaRoutingDataSource does not support per-call credentials");
+    }
+
+    // replica 마다 커넥션을 얻어 확인한다. 스케줄러가 주기적으로 부르고, 테스트에서도 직접 부를 수 있다.
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (StringUtils.hasText(validationQuery)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute(validationQuery);
+                    }
+                    replica.markUp();
+                } else if (connection.isValid(1)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        for (Replica replica : replicas) {
+            Gauge.builder("member.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 when the replica passes its health check")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static <T> void set(ThreadLocal<T> threadLocal, T value) {
+        if (value == null) {
+            threadLocal.remove();
+        } else {
+            threadLocal.set(value);
+        }
+    }
+
+    private Connection primary(String reason) throws SQLException {
+        route(PRIMARY, reason);
+        return primary.getConnection();
+    }
+
+    private boolean recentlyWrote() {
+        long now = System.nanoTime();
+        Long threadWrite = THREAD_LAST_WRITE.get();
+        if (threadWrite != null && now - threadWrite < readYourWritesNanos) {
+            return true;
+        }
+        String session = SESSION.get();
+        return session != null && sessionWrites.getIfPresent(session) != null;
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // 쓰기 트랜잭션마다 한 번만 동기화를 등록하고, 커밋되면 세션과 스레드에 쓰기 시각을 남긴다.
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        String session = SESSION.get();
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                THREAD_LAST_WRITE.set(System.nanoTime());
+                if (session != null) {
+                    sessionWrites.put(session, System.nanoTime());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    // 트랜잭션마다가 아니라 실제 커넥션을 얻을 때마다 센다.
+    private void route(String target, String reason) {
+        if (meterRegistry == null) {
+            return;
+        }
+        routes.computeIfAbsent(target + ":" + reason, key -> Counter.builder("member.datasource.route")
+                .description("physical connections handed out by the routing datasource")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("replica {} is healthy again", name);
+            }
+            healthy = true;
+        }
+
+        void markDown(SQLException cause) {
+            if (healthy) {
+                log.warn("replica {} marked down: {}", name, cause == null ? "invalid connection" : cause.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
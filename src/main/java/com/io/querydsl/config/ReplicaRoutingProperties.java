@@ -0,0 +1,33 @@
+package com.io.querydsl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    // 켜면 읽기 전용 트랜잭션을 replicas 로 보낸다. (primary 는 spring.datasource.*)
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    // 비어 있으면 Connection.isValid 로 확인한다. 스키마가 준비됐는지까지 보려면 테이블을 읽는 쿼리를 둔다.
+    private String validationQuery;
+    // 쓰기 트랜잭션이 커밋된 뒤 이 시간 동안은 같은 세션의 읽기도 primary 로 보낸다.
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+    // 요청 간에 세션을 구분하는 헤더. 없으면 같은 요청(스레드) 안에서만 쓰기 이후 읽기를 primary 로 보낸다.
+    private String sessionHeader = "X-Session-Id";
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        // 0 이면 Hikari 기본값
+        private int maximumPoolSize = 0;
+    }
+}
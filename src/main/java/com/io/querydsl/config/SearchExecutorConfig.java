@@ -0,0 +1,32 @@
+package com.io.querydsl.config;
+
+import com.io.querydsl.metrics.SqlStatementCounter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableConfigurationProperties(MemberPagingProperties.class)
+public class SearchExecutorConfig {
+
+    public static final String MEMBER_SEARCH_EXECUTOR = "memberSearchExecutor";
+
+    // 큐까지 가득 차면 호출 스레드에서 직접 실행한다. (동시 실행 대신 순차 실행으로 물러난다)
+    // 작업 스레드에서 실행한 SQL 은 작업을 제출한 요청의 member.search.statements 에 세고,
+    // replica 라우팅은 작업을 제출한 요청의 read-your-writes 상태를 따른다.
+    @Bean(name = MEMBER_SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor memberSearchExecutor(MemberPagingProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("member-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(task -> ReplicaRoutingDataSource.propagate(SqlStatementCounter.propagate(task)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
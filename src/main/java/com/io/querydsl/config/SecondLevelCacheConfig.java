@@ -0,0 +1,65 @@
+package com.io.querydsl.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.io.querydsl.persistence.Team;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate 2차 캐시 설정.
+ * 프로세스 내부 캐시(Caffeine JCache)를 쓰고, 리전마다 크기와 TTL 을 제한한다.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // 크기/TTL 제한을 받는 리전
+    public static final List<String> BOUNDED_REGIONS = List.of(
+            Team.CACHE_REGION,
+            Team.MEMBERS_CACHE_REGION,
+            Team.BY_NAME_QUERY_REGION,
+            QUERY_RESULTS_REGION
+    );
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        // 컨텍스트마다 별도의 CacheManager 를 쓰도록 URI 를 구분한다.
+        URI uri = URI.create("querydsl-second-level-" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+
+        for (String region : BOUNDED_REGIONS) {
+            cacheManager.createCache(region, boundedConfiguration(properties));
+        }
+        // 타임스탬프 리전은 쿼리 캐시의 정합성을 판단하므로 만료시키지 않는다.
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> boundedConfiguration(SecondLevelCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
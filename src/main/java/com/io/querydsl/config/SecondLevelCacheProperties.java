@@ -0,0 +1,16 @@
+package com.io.querydsl.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "cache.second-level")
+public class SecondLevelCacheProperties {
+
+    // 리전별 최대 항목 수
+    private long maxSize = 10_000;
+    // 항목이 저장된 뒤 만료되기까지의 시간
+    private Duration ttl = Duration.ofMinutes(10);
+}
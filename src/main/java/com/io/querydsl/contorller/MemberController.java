@@ -1,14 +1,27 @@
 package com.io.querydsl.contorller;
 
+import com.io.querydsl.domain.ExportFormat;
+import com.io.querydsl.domain.MemberCursor;
 import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CursorSlice;
+import com.io.querydsl.dto.MemberColumnsDto;
 import com.io.querydsl.dto.MemberTeamDto;
-import com.io.querydsl.repository.MemberJpaRepository;
+import com.io.querydsl.dto.SliceDto;
 import com.io.querydsl.repository.MemberRepository;
+import com.io.querydsl.service.MemberExportService;
+import com.io.querydsl.service.MemberSearchService;
+import com.io.querydsl.service.MemberStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,23 +29,79 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.member.columnar+json";
+    public static final String COLUMNAR_EXPORT_VALUE = "application/vnd.member.columnar";
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     private final MemberRepository memberRepository;
+    private final MemberSearchService memberSearchService;
+    private final MemberStreamService memberStreamService;
+    private final MemberExportService memberExportService;
 
     @GetMapping("/members/v1")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search2(condition);
+        return memberSearchService.search(condition);
+    }
+
+    @GetMapping(value = "/members/v1/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchMemberV1Stream(MemberSearchCondition condition) {
+        StreamingResponseBody body = out -> memberStreamService.writeNdjson(condition, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // 검색 결과 전체를 파일로 내려받는다. (offset 을 늘려 가며 /members/v2 를 반복 호출하지 않아도 된다)
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(MemberSearchCondition condition,
+                                                               @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        StreamingResponseBody body = out -> memberExportService.export(condition, format, out);
+        String fileName = switch (format) {
+            case CSV -> "members.csv.gz";
+            case COLUMNAR -> "members.mcol";
+        };
+        MediaType mediaType = switch (format) {
+            case CSV -> MediaType.parseMediaType("application/gzip");
+            case COLUMNAR -> MediaType.parseMediaType(COLUMNAR_EXPORT_VALUE);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(mediaType)
+                .body(body);
     }
 
     @GetMapping("/members/v2")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition,
                                               Pageable pageable) {
-        return memberRepository.searchMemberPagingSimple(condition, pageable);
+        return memberSearchService.searchPageSimple(condition, pageable);
     }
 
     @GetMapping("/members/v3")
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition,
                                               Pageable pageable) {
-        return memberRepository.searchMemberPagingComplex(condition, pageable);
+        return memberSearchService.searchPage(condition, pageable);
+    }
+
+    @GetMapping("/members/v4")
+    public CursorSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+                                                     @RequestParam(required = false) MemberCursor cursor,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return memberRepository.searchMemberByCursor(condition, cursor, pageSize);
+    }
+
+    // 슬라이스 - count 쿼리 없이 다음 페이지 여부만 알려준다.
+    // Accept 가 application/vnd.member.columnar+json 이면 열 단위로 응답한다.
+    @GetMapping(value = "/members/v5", produces = MediaType.APPLICATION_JSON_VALUE)
+    public SliceDto<MemberTeamDto> searchMemberV5(MemberSearchCondition condition,
+                                                 Pageable pageable) {
+        return new SliceDto<>(memberSearchService.searchSlice(condition, pageable));
+    }
+
+    @GetMapping(value = "/members/v5", produces = COLUMNAR_JSON_VALUE)
+    public MemberColumnsDto searchMemberV5Columnar(MemberSearchCondition condition,
+                                                   Pageable pageable) {
+        return new MemberColumnsDto(memberSearchService.searchSlice(condition, pageable));
     }
 }
@@ -0,0 +1,54 @@
+package com.io.querydsl.contorller;
+
+import com.io.querydsl.config.QueryDeadlineMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+// 쿼리 예산을 넘긴 요청은 500 대신 503 으로 응답해 클라이언트가 재시도할 수 있게 한다.
+// (@Repository 밖에서 실행된 쿼리는 예외 변환을 거치지 않으므로 JPA 예외도 함께 받는다)
+// Hikari 는 SQLTimeoutException 이 난 커넥션을 닫아 버리므로 롤백이 실패하고 TransactionSystemException 이 대신 올라온다.
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class QueryTimeoutAdvice {
+
+    private final QueryDeadlineMetrics queryDeadlineMetrics;
+
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public void queryTimeout(RuntimeException e,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        timedOut(e, request, response);
+    }
+
+    @ExceptionHandler(TransactionSystemException.class)
+    public void transactionFailure(TransactionSystemException e,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        if (!isQueryTimeout(e.getApplicationException())) {
+            throw e;
+        }
+        timedOut(e.getApplicationException(), request, response);
+    }
+
+    private void timedOut(Throwable e, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        queryDeadlineMetrics.timedOut(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        if (!response.isCommitted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        }
+    }
+
+    private boolean isQueryTimeout(Throwable e) {
+        return e instanceof QueryTimeoutException || e instanceof jakarta.persistence.QueryTimeoutException;
+    }
+}
@@ -0,0 +1,51 @@
+package com.io.querydsl.contorller;
+
+import com.io.querydsl.config.SecondLevelCacheConfig;
+import com.io.querydsl.dto.CacheStatsDto;
+import com.io.querydsl.repository.MemberSearchQueryCache;
+import com.io.querydsl.service.MemberSearchResultCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final MemberSearchQueryCache memberSearchQueryCache;
+    private final MemberSearchResultCache memberSearchResultCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @GetMapping("/stats/query-templates")
+    public CacheStatsDto queryTemplateStats() {
+        return memberSearchQueryCache.stats();
+    }
+
+    @GetMapping("/stats/search-results")
+    public CacheStatsDto searchResultStats() {
+        return memberSearchResultCache.stats();
+    }
+
+    // 2차 캐시 리전별 적중/미스 (hibernate.generate_statistics 가 켜져 있어야 집계된다)
+    @GetMapping("/stats/second-level-cache")
+    public Map<String, CacheStatsDto> secondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheStatsDto> result = new LinkedHashMap<>();
+        for (String region : SecondLevelCacheConfig.BOUNDED_REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                result.put(region, new CacheStatsDto(regionStatistics.getHitCount(),
+                                                     regionStatistics.getMissCount(),
+                                                     regionStatistics.getElementCountInMemory()));
+            }
+        }
+        return result;
+    }
+}
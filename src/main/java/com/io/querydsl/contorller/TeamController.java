@@ -0,0 +1,32 @@
+package com.io.querydsl.contorller;
+
+import com.io.querydsl.dto.TeamDto;
+import com.io.querydsl.dto.TeamStatsDto;
+import com.io.querydsl.repository.TeamRepository;
+import com.io.querydsl.service.TeamStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+    private final TeamStatsService teamStatsService;
+
+    // 팀별 회원 수와 나이 평균/최소/최대 (메모리에 유지하는 집계를 읽는다)
+    @GetMapping("/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return teamStatsService.stats();
+    }
+
+    @GetMapping("/teams/{name}")
+    public ResponseEntity<TeamDto> findTeam(@PathVariable String name) {
+        return ResponseEntity.of(teamRepository.findByName(name).map(TeamDto::new));
+    }
+}
@@ -0,0 +1,7 @@
+package com.io.querydsl.domain;
+
+// 회원 내보내기 파일 형식
+public enum ExportFormat {
+    CSV,      // gzip 으로 압축한 CSV (memberId,username,age,teamId,teamName)
+    COLUMNAR  // 청크마다 열 단위로 쓰는 바이너리 (MemberExportWriter.Columnar 참고)
+}
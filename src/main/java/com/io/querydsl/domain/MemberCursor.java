@@ -0,0 +1,43 @@
+package com.io.querydsl.domain;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징용 커서.
+ * 정렬 키(age)와 member.id 를 담고, 클라이언트에는 Base64 문자열로만 노출한다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class MemberCursor {
+
+    private final int age;
+    private final long memberId;
+
+    public MemberCursor(int age, long memberId) {
+        this.age = age;
+        this.memberId = memberId;
+    }
+
+    public String encode() {
+        String raw = age + ":" + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 요청 파라미터 변환에 사용된다. (잘못된 커서는 400으로 응답된다)
+    public static MemberCursor valueOf(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new MemberCursor(Integer.parseInt(raw.substring(0, separator)),
+                                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + encoded, e);
+        }
+    }
+}
@@ -1,11 +1,133 @@
 package com.io.querydsl.domain;
 
+import com.io.querydsl.persistence.Member;
 import lombok.Data;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
     private String username;
+    private UsernameMatch usernameMatch = UsernameMatch.EXACT;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+    // 여러 팀/회원을 한 번에 찾는다. (in 조건)
+    private List<String> teamNames;
+    private List<Long> memberIds;
+
+    // 어떤 조건이 설정되었는지를 비트로 표현한다. (동적 쿼리의 형태가 같으면 값도 같다)
+    // username 비교 방식은 4, 5 번 비트이고, 3-gram 보다 짧은 부분 문자열은 색인을 쓰지 못하므로 6 번 비트로 구분한다.
+    // 목록 조건(teamNames, memberIds)은 7, 8 번 비트이다.
+    public int shape() {
+        int shape = 0;
+        if (hasText(username)) shape |= 1;
+        if (hasText(teamName)) shape |= 1 << 1;
+        if (ageGoe != null) shape |= 1 << 2;
+        if (ageLoe != null) shape |= 1 << 3;
+        if (hasText(username) && usernameMatch == UsernameMatch.PREFIX) shape |= 1 << 4;
+        if (hasText(username) && usernameMatch == UsernameMatch.CONTAINS) {
+            shape |= username.length() >= Member.USERNAME_GRAM_SIZE ? 1 << 5 : 1 << 6;
+        }
+        if (teamNames != null && !teamNames.isEmpty()) shape |= 1 << 7;
+        if (memberIds != null && !memberIds.isEmpty()) shape |= 1 << 8;
+        return shape;
+    }
+
+    // 메트릭 태그용 shape 표현 (예: "teamName+ageGoe", 조건이 없으면 "none")
+    public String shapeTag() {
+        int shape = shape();
+        if (shape == 0) {
+            return "none";
+        }
+        StringJoiner joiner = new StringJoiner("+");
+        if ((shape & 1 << 4) != 0) joiner.add("usernamePrefix");
+        else if ((shape & (1 << 5 | 1 << 6)) != 0) joiner.add("usernameContains");
+        else if ((shape & 1) != 0) joiner.add("username");
+        if ((shape & 1 << 1) != 0) joiner.add("teamName");
+        if ((shape & 1 << 2) != 0) joiner.add("ageGoe");
+        if ((shape & 1 << 3) != 0) joiner.add("ageLoe");
+        if ((shape & 1 << 7) != 0) joiner.add("teamNames");
+        if ((shape & 1 << 8) != 0) joiner.add("memberIds");
+        return joiner.toString();
+    }
+
+    // 앞뒤 공백을 없애고 빈 문자열은 조건 없음(null)으로 바꾼 사본 (같은 검색이 같은 캐시 키가 되도록)
+    public MemberSearchCondition normalized() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(hasText(username) ? username.trim() : null);
+        normalized.setUsernameMatch(hasText(username) && usernameMatch != null ? usernameMatch : UsernameMatch.EXACT);
+        normalized.setTeamName(hasText(teamName) ? teamName.trim() : null);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        // 목록은 중복과 빈 값을 없애고 정렬한다. (순서만 다른 목록도 같은 검색이다)
+        if (teamNames != null) {
+            List<String> names = teamNames.stream()
+                    .filter(name -> hasText(name))
+                    .map(String::trim)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            normalized.setTeamNames(names.isEmpty() ? null : names);
+        }
+        if (memberIds != null) {
+            List<Long> ids = memberIds.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            normalized.setMemberIds(ids.isEmpty() ? null : ids);
+        }
+        return normalized;
+    }
+
+    // 팀 이름 조건이 하나라도 있으면 팀이 없는 회원은 결과에 들어갈 수 없다. (inner join 가능)
+    public boolean filtersByTeam() {
+        return hasText(teamName) || (teamNames != null && !teamNames.isEmpty());
+    }
+
+    // 이 팀 이름으로 거르는 조건인지 (팀 이름이 바뀌면 이런 조건의 결과가 달라진다)
+    public boolean filtersByTeamName(String name) {
+        return name != null && (name.equals(teamName) || (teamNames != null && teamNames.contains(name)));
+    }
+
+    // 회원이 이 조건의 검색 결과에 들어가는지 메모리에서 판단한다. (팀 이름을 모르면 들어간다고 본다)
+    public boolean matches(MemberSearchState state) {
+        if (state == null) {
+            return false;
+        }
+        if (hasText(username) && !usernameMatches(state.username())) {
+            return false;
+        }
+        if (hasText(teamName) && (state.teamId() == null
+                || (state.teamName() != null && !teamName.equals(state.teamName())))) {
+            return false;
+        }
+        if (teamNames != null && !teamNames.isEmpty() && (state.teamId() == null
+                || (state.teamName() != null && !teamNames.contains(state.teamName())))) {
+            return false;
+        }
+        if (memberIds != null && !memberIds.isEmpty() && !memberIds.contains(state.memberId())) {
+            return false;
+        }
+        if (ageGoe != null && state.age() < ageGoe) {
+            return false;
+        }
+        return ageLoe == null || state.age() <= ageLoe;
+    }
+
+    private boolean usernameMatches(String value) {
+        if (value == null) {
+            return false;
+        }
+        return switch (usernameMatch != null ? usernameMatch : UsernameMatch.EXACT) {
+            case EXACT -> username.equals(value);
+            case PREFIX -> value.startsWith(username);
+            case CONTAINS -> value.contains(username);
+        };
+    }
 }
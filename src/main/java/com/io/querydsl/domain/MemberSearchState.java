@@ -0,0 +1,19 @@
+package com.io.querydsl.domain;
+
+import com.io.querydsl.persistence.Team;
+import org.hibernate.Hibernate;
+
+/**
+ * 검색 조건이 보는 회원 컬럼 값. 검색 결과 캐시에서 변경된 회원이 어떤 조건에 걸리는지 판단할 때 쓴다.
+ * 팀이 아직 로딩되지 않았으면 teamName 은 null 이다. (팀 이름 조건에는 걸린다고 본다)
+ */
+public record MemberSearchState(Long memberId, String username, int age, Long teamId, String teamName) {
+
+    public static MemberSearchState of(Long memberId, String username, int age, Team team) {
+        if (team == null) {
+            return new MemberSearchState(memberId, username, age, null, null);
+        }
+        String teamName = Hibernate.isInitialized(team) ? team.getName() : null;
+        return new MemberSearchState(memberId, username, age, team.getId(), teamName);
+    }
+}
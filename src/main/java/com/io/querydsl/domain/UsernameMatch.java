@@ -0,0 +1,8 @@
+package com.io.querydsl.domain;
+
+// username 조건을 비교하는 방식
+public enum UsernameMatch {
+    EXACT,    // username = ?
+    PREFIX,   // username 인덱스의 범위 탐색
+    CONTAINS  // 3-gram 색인(member_username_gram)으로 후보를 좁힌 뒤 like 로 확인
+}
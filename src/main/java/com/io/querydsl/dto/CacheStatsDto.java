@@ -0,0 +1,16 @@
+package com.io.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsDto {
+    private long hits;
+    private long misses;
+    private long size;
+
+    public CacheStatsDto(long hits, long misses, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+    }
+}
@@ -0,0 +1,53 @@
+package com.io.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 검색 결과의 열(column) 단위 응답. 행마다 필드 이름을 반복하지 않고 열마다 배열 하나를 둔다.
+ * 팀은 행마다 같은 값이 반복되므로 teamIds/teamNames 사전에 한 번씩만 두고, 행에는 사전 위치(team)만 둔다. (팀이 없으면 -1)
+ * i 번째 회원: memberId[i], username[i], age[i], teamIds[team[i]], teamNames[team[i]]
+ */
+@Getter
+public class MemberColumnsDto {
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+    private final long[] memberId;
+    private final String[] username;
+    private final int[] age;
+    private final int[] team;
+    private final List<Long> teamIds = new ArrayList<>();
+    private final List<String> teamNames = new ArrayList<>();
+
+    public MemberColumnsDto(Slice<MemberTeamDto> slice) {
+        this.page = slice.getNumber();
+        this.size = slice.getSize();
+        this.hasNext = slice.hasNext();
+
+        List<MemberTeamDto> content = slice.getContent();
+        int rows = content.size();
+        this.memberId = new long[rows];
+        this.username = new String[rows];
+        this.age = new int[rows];
+        this.team = new int[rows];
+
+        Map<Long, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            MemberTeamDto row = content.get(i);
+            memberId[i] = row.getMemberId();
+            username[i] = row.getUsername();
+            age[i] = row.getAge();
+            team[i] = row.getTeamId() == null ? -1 : dictionary.computeIfAbsent(row.getTeamId(), teamId -> {
+                teamIds.add(teamId);
+                teamNames.add(row.getTeamName());
+                return teamIds.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.io.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Slice 의 JSON 응답. PageImpl/SliceImpl 을 그대로 직렬화하면 pageable, sort 메타데이터가 함께 나가므로 필요한 값만 담는다.
+ */
+@Getter
+public class SliceDto<T> {
+    private final List<T> content;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+
+    public SliceDto(Slice<T> slice) {
+        this.content = slice.getContent();
+        this.page = slice.getNumber();
+        this.size = slice.getSize();
+        this.hasNext = slice.hasNext();
+    }
+}
@@ -0,0 +1,15 @@
+package com.io.querydsl.dto;
+
+import com.io.querydsl.persistence.Team;
+import lombok.Data;
+
+@Data
+public class TeamDto {
+    private Long teamId;
+    private String name;
+
+    public TeamDto(Team team) {
+        this.teamId = team.getId();
+        this.name = team.getName();
+    }
+}
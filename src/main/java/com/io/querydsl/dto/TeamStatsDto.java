@@ -0,0 +1,23 @@
+package com.io.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamStatsDto {
+    private Long teamId;
+    private String teamName;
+    private long count;
+    // 회원이 없는 팀은 null
+    private Double avgAge;
+    private Integer minAge;
+    private Integer maxAge;
+
+    public TeamStatsDto(Long teamId, String teamName, long count, Double avgAge, Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.count = count;
+        this.avgAge = avgAge;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+}
@@ -1,45 +1,23 @@
 package com.io.querydsl.init;
 
-import com.io.querydsl.persistence.Member;
-import com.io.querydsl.persistence.Team;
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 @Profile("local")
 @Component
 @RequiredArgsConstructor
+@EnableConfigurationProperties(MemberSeedProperties.class)
 public class InitMember {
 
-    private final InitMemberService initMemberService;
+    private final MemberSeeder memberSeeder;
+    private final MemberSeedProperties memberSeedProperties;
 
     @PostConstruct
     private void init() {
-        initMemberService.init();
-    }
-
-    @Component
-    static class InitMemberService {
-        @PersistenceContext
-        private EntityManager em;
-
-        @Transactional
-        public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for (int i = 0; i < 100; i++) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member((long) i, "member" + i, i, selectedTeam));
-                System.out.println("member" + i + " into DB");
-            }
-        }
+        memberSeeder.seed(memberSeedProperties);
     }
 
 }
@@ -0,0 +1,38 @@
+package com.io.querydsl.init;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "init.member")
+public class MemberSeedProperties {
+
+    @PositiveOrZero
+    private long count = 100;
+    @PositiveOrZero
+    private int teamCount = 2;
+    @PositiveOrZero
+    private int minAge = 0;
+    @PositiveOrZero
+    private int maxAge = 99;
+    private AgeDistribution ageDistribution = AgeDistribution.SEQUENTIAL;
+    // flush/clear 및 커밋 단위 (hibernate.jdbc.batch_size 의 배수로 두는 것이 좋다)
+    @Positive
+    private int chunkSize = 1000;
+
+    @AssertTrue(message = "init.member.min-age must not be greater than init.member.max-age")
+    public boolean isAgeRangeValid() {
+        return minAge <= maxAge;
+    }
+
+    public enum AgeDistribution {
+        SEQUENTIAL, // minAge 부터 maxAge 까지 차례로 반복
+        UNIFORM,    // 구간 내 균등 분포
+        NORMAL      // 구간 중앙을 평균으로 하는 정규 분포
+    }
+}
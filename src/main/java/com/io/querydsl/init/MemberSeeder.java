@@ -0,0 +1,112 @@
+package com.io.querydsl.init;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.SplittableRandom;
+
+/**
+ * 대량 회원 적재기.
+ * 청크 단위로 persist 후 flush/clear 해서 JDBC 배치 insert 로 내보내고, 영속성 컨텍스트를 비운다.
+ * 트랜잭션 밖에서 호출하면 청크마다 커밋하고, 이미 트랜잭션이 있으면 거기에 참여한다.
+ */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+    private static final long RANDOM_SEED = 42L;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberSeeder(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // 바인딩 검증을 거치지 않고 만든 설정으로도 호출할 수 있으므로 청크 크기를 다시 확인한다. (0 이면 끝나지 않는다)
+    public long seed(MemberSeedProperties properties) {
+        Assert.isTrue(properties.getChunkSize() > 0, "init.member.chunk-size must be positive");
+        Assert.isTrue(properties.getMinAge() <= properties.getMaxAge(),
+                () -> "init.member.min-age (" + properties.getMinAge()
+                        + ") must not be greater than init.member.max-age (" + properties.getMaxAge() + ")");
+        long startedAt = System.nanoTime();
+
+        Long[] teamIds = transactionTemplate.execute(status -> persistTeams(properties.getTeamCount()));
+
+        SplittableRandom random = new SplittableRandom(RANDOM_SEED);
+        long count = properties.getCount();
+        for (long from = 0; from < count; from += properties.getChunkSize()) {
+            long to = Math.min(from + properties.getChunkSize(), count);
+            long chunkFrom = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                persistMembers(chunkFrom, to, teamIds, properties, random);
+                em.flush();
+                em.clear();
+            });
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("seeded {} members into {} teams in {} ms ({} rows/sec)",
+                count, teamIds.length, elapsedMillis, count * 1000 / elapsedMillis);
+        return count;
+    }
+
+    private Long[] persistTeams(int teamCount) {
+        Long[] teamIds = new Long[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            Team team = new Team(teamName(i));
+            em.persist(team);
+            teamIds[i] = team.getId();
+        }
+        return teamIds;
+    }
+
+    // 연관관계 편의 메서드(changeTeam)는 team.members 를 채우므로 대량 적재에서는 참조만 건다.
+    private void persistMembers(long from, long to, Long[] teamIds, MemberSeedProperties properties, SplittableRandom random) {
+        Team[] teams = new Team[teamIds.length];
+        for (int i = 0; i < teamIds.length; i++) {
+            teams[i] = em.getReference(Team.class, teamIds[i]);
+        }
+
+        for (long id = from; id < to; id++) {
+            Member member = new Member(id, "member" + id, age(id, properties, random));
+            if (teams.length > 0) {
+                member.setTeam(teams[(int) (id % teams.length)]);
+            }
+            em.persist(member);
+        }
+    }
+
+    private int age(long id, MemberSeedProperties properties, SplittableRandom random) {
+        int min = properties.getMinAge();
+        int range = properties.getMaxAge() - min + 1;
+        return switch (properties.getAgeDistribution()) {
+            case SEQUENTIAL -> min + (int) (id % range);
+            case UNIFORM -> min + random.nextInt(range);
+            case NORMAL -> {
+                double gaussian = nextGaussian(random) * range / 6.0 + (range - 1) / 2.0;
+                yield min + (int) Math.max(0, Math.min(range - 1, Math.round(gaussian)));
+            }
+        };
+    }
+
+    private double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    // teamA, teamB ... teamZ 이후로는 team26, team27 ...
+    public static String teamName(int index) {
+        return index < 26 ? "team" + (char) ('A' + index) : "team" + index;
+    }
+}
@@ -0,0 +1,87 @@
+package com.io.querydsl.metrics;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CursorSlice;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * 회원 검색 리포지토리 메서드의 실행 시간, 반환 행 수, 실행된 SQL 수를 기록한다.
+ * 태그는 메서드 이름과 검색 조건의 형태(shape) 이다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    // MemberRepositoryCustom 은 구현체(프래그먼트 빈)에서만 잡아야 리포지토리 프록시와 이중으로 집계되지 않는다.
+    // Stream 을 반환하는 메서드는 소비 시점에 조회되므로 제외한다.
+    @Around("(execution(public * com.io.querydsl.repository.MemberRepositoryImpl.*(..))"
+            + " || execution(public * com.io.querydsl.repository.MemberJpaRepository.search*(..)))"
+            + " && !execution(java.util.stream.Stream *(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("method", joinPoint.getSignature().getName(), "shape", shapeOf(joinPoint.getArgs()));
+
+        long statementsBefore = sqlStatementCounter.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            recordRows(result, tags);
+            return result;
+        } finally {
+            sample.stop(Timer.builder("member.search")
+                    .description("member search repository latency")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            DistributionSummary.builder("member.search.statements")
+                    .description("SQL statements executed per member search call")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sqlStatementCounter.current() - statementsBefore);
+        }
+    }
+
+    private void recordRows(Object result, Tags tags) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof CursorSlice<?> cursorSlice) {
+            rows = cursorSlice.getContent().size();
+        } else {
+            return;
+        }
+        DistributionSummary.builder("member.search.rows")
+                .description("rows returned per member search call")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    private String shapeOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition condition) {
+                return condition.shapeTag();
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,42 @@
+package com.io.querydsl.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 현재 스레드에서 준비된 SQL 문 수를 센다.
+ * Hibernate 통계는 SessionFactory 전체 합계라서 요청 단위로 나눌 수 없으므로 StatementInspector 로 직접 센다.
+ * 다른 스레드에 맡긴 쿼리(동시 페이징)는 propagate 로 감싸면 맡긴 스레드의 카운터에 더해진다.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<LongAdder> COUNT = ThreadLocal.withInitial(LongAdder::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().increment();
+        return sql;
+    }
+
+    // 현재 스레드의 누적 값. 구간의 문장 수는 전후 값의 차이로 구한다.
+    public long current() {
+        return COUNT.get().sum();
+    }
+
+    // 작업을 제출한 스레드의 카운터를 작업을 실행하는 스레드에서 이어 쓴다. (TaskDecorator 용)
+    public static Runnable propagate(Runnable task) {
+        LongAdder caller = COUNT.get();
+        return () -> {
+            LongAdder previous = COUNT.get();
+            COUNT.set(caller);
+            try {
+                task.run();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
@@ -6,13 +6,27 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
 @Getter
 @Setter
-@ToString(exclude = "team")
+@ToString(exclude = {"team", "usernameGrams"})
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        // MemberTeamDto 프로젝션의 회원 컬럼을 모두 담는 커버링 인덱스 (member_id 는 행 키로 포함된다)
+        @Index(name = "idx_member_age_covering", columnList = "age, team_id, username")
+})
 @NoArgsConstructor
+@NamedEntityGraph(name = Member.TEAM_GRAPH, attributeNodes = @NamedAttributeNode("team"))
 public class Member {
 
+    public static final String TEAM_GRAPH = "Member.team";
+    public static final int USERNAME_GRAM_SIZE = 3;
+
     @Id
     @Column(name = "member_id")
     private Long id;
@@ -23,6 +37,14 @@ public class Member {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    // username 의 3-gram 색인. 부분 문자열 검색(CONTAINS)이 전체 회원을 훑지 않도록 후보를 좁힌다.
+    @ElementCollection
+    @CollectionTable(name = "member_username_gram",
+            joinColumns = @JoinColumn(name = "member_id"),
+            indexes = @Index(name = "idx_member_username_gram", columnList = "gram, member_id"))
+    @Column(name = "gram", length = USERNAME_GRAM_SIZE)
+    private Set<String> usernameGrams = new HashSet<>();
+
     public Member(Long id, String username) {
         this(id, username, 0);
     }
@@ -33,13 +55,39 @@ public class Member {
 
     public Member(Long id, String username, int age, Team team) {
         this.id = id;
-        this.username = username;
+        changeUsername(username);
         this.age = age;
         if (team != null) {
             changeTeam(team);
         }
     }
 
+    // username 이 바뀌면 3-gram 색인도 다시 만든다.
+    public void setUsername(String username) {
+        changeUsername(username);
+    }
+
+    // 생성자에서도 쓰므로 재정의할 수 없는 메서드로 둔다.
+    private void changeUsername(String username) {
+        if (Objects.equals(this.username, username)) {
+            return;
+        }
+        this.username = username;
+        usernameGrams.clear();
+        usernameGrams.addAll(usernameGrams(username));
+    }
+
+    public static Set<String> usernameGrams(String username) {
+        Set<String> grams = new HashSet<>();
+        if (username == null) {
+            return grams;
+        }
+        for (int i = 0; i + USERNAME_GRAM_SIZE <= username.length(); i++) {
+            grams.add(username.substring(i, i + USERNAME_GRAM_SIZE));
+        }
+        return grams;
+    }
+
     public void changeTeam(Team team) {
         this.team = team;
         team.getMembers().add(this);
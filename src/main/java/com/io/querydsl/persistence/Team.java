@@ -2,6 +2,8 @@ package com.io.querydsl.persistence;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,14 +12,24 @@ import java.util.List;
 @Setter
 @ToString(exclude = "members")
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
 @NoArgsConstructor
+// READ_WRITE: 수정/삭제하는 동안 캐시 항목을 잠그므로, 나중에 롤백될 트랜잭션이 읽은 커밋 전 값은 캐시에 들어가지 않는다.
+// (잠긴 항목은 트랜잭션이 끝날 때 풀리고, 다음 조회가 DB 에서 커밋된 값을 다시 채운다)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.CACHE_REGION)
 public class Team {
 
+    public static final String CACHE_REGION = "team";
+    public static final String MEMBERS_CACHE_REGION = "team.members";
+    public static final String BY_NAME_QUERY_REGION = "team.by-name";
+
     @Id @GeneratedValue
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.MEMBERS_CACHE_REGION)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,46 @@
+package com.io.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * 다른 스레드에서 실행 중인 쿼리를 취소할 수 있게 그 스레드의 세션을 기억한다.
+ * Future.cancel(true) 의 인터럽트는 JDBC 호출을 멈추지 못하므로 Session#cancelQuery 로 실행 중인 Statement 를 취소한다.
+ * (cancelQuery 는 세션에서 유일하게 다른 스레드에서 불러도 되는 메서드이고, QueryDeadline 의 취소 동작도 같은 방법을 쓴다)
+ */
+class CancellableQuery {
+
+    private volatile Session session;
+    private volatile boolean cancelled;
+
+    // 쿼리를 실행할 스레드에서 호출한다. 공유 EntityManager 프록시가 아닌, 이 스레드에 묶인 세션을 기억한다.
+    // 이미 취소됐으면 쿼리를 시작하지 않는다.
+    <T> T run(EntityManager em, Supplier<T> query) {
+        session = em.unwrap(Session.class);
+        if (cancelled) {
+            throw new CancellationException("query was cancelled before it started");
+        }
+        T result = query.get();
+        // 취소가 위의 확인과 Statement 준비 사이에 들어오면 cancelQuery 가 취소할 문장이 아직 없다.
+        // 그때는 쿼리가 끝까지(쿼리 타임아웃까지) 실행되므로, 결과를 버리고 취소된 것으로 끝낸다.
+        if (cancelled) {
+            throw new CancellationException("query was cancelled while it was being prepared");
+        }
+        return result;
+    }
+
+    void cancel() {
+        cancelled = true;
+        Session current = session;
+        if (current != null) {
+            try {
+                current.cancelQuery();
+            } catch (RuntimeException ignored) {
+                // 이미 끝나 닫힌 세션은 취소할 것이 없다.
+            }
+        }
+    }
+}
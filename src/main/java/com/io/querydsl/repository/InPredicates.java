@@ -0,0 +1,69 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 목록 조건(teamNames, memberIds)을 in 으로 바꾼다.
+ * in 절 파라미터 패딩(hibernate.query.in_clause_parameter_padding)이 켜져 있으므로 파라미터 수는 2의 거듭제곱으로 맞춰지고,
+ * MAX_IN_SIZE 를 넘는 목록은 한 쿼리에서는 in 을 나눠 or 로 묶고, 목록 검색에서는 나눠 조회한 뒤 합친다.
+ */
+final class InPredicates {
+
+    static final int MAX_IN_SIZE = 1024;
+
+    private InPredicates() {
+    }
+
+    static <T> BooleanExpression in(SimpleExpression<T> path, List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BooleanExpression result = null;
+        for (List<T> chunk : chunks(values)) {
+            BooleanExpression in = path.in(chunk);
+            result = result == null ? in : result.or(in);
+        }
+        return result;
+    }
+
+    // 목록이 MAX_IN_SIZE 를 넘으면 목록을 나눈 조건들로 쪼갠다. (두 목록이 모두 길면 조합마다 하나씩)
+    static List<MemberSearchCondition> split(MemberSearchCondition condition) {
+        List<MemberSearchCondition> result = new ArrayList<>();
+        for (List<String> teamNames : chunksOrNull(condition.getTeamNames())) {
+            for (List<Long> memberIds : chunksOrNull(condition.getMemberIds())) {
+                MemberSearchCondition part = new MemberSearchCondition();
+                part.setUsername(condition.getUsername());
+                part.setUsernameMatch(condition.getUsernameMatch());
+                part.setTeamName(condition.getTeamName());
+                part.setAgeGoe(condition.getAgeGoe());
+                part.setAgeLoe(condition.getAgeLoe());
+                part.setTeamNames(teamNames);
+                part.setMemberIds(memberIds);
+                result.add(part);
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += MAX_IN_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + MAX_IN_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    private static <T> List<List<T>> chunksOrNull(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            List<List<T>> none = new ArrayList<>();
+            none.add(values);
+            return none;
+        }
+        return chunks(values);
+    }
+}
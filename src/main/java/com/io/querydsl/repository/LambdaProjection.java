@@ -0,0 +1,88 @@
+package com.io.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 생성자 참조로 행을 만드는 DTO 프로젝션. @QueryProjection 으로 생성된 Q 타입 대신 쓴다.
+ * Q 타입(ConstructorExpression)은 행마다 인자 배열을 변환하고 리플렉션으로 생성자를 호출하지만,
+ * 여기서는 컴파일 시점에 묶인 생성자 참조(LambdaMetafactory)를 Querydsl 이 넘겨준 행 배열로 바로 호출한다.
+ * <pre>
+ * LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new, member.id, member.username, member.age, team.id, team.name)
+ * </pre>
+ * 원시 타입 파라미터에 null 이 오면 NullPointerException 이 나므로 null 이 될 수 있는 컬럼은 래퍼 타입으로 받는다.
+ */
+public final class LambdaProjection<T> extends FactoryExpressionBase<T> {
+
+    private final List<Expression<?>> args;
+    private final transient Function<Object[], T> factory;
+
+    private LambdaProjection(Class<? extends T> type, Function<Object[], T> factory, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, T> LambdaProjection<T> of(Class<? extends T> type, Factory2<A, B, T> factory,
+                                                   Expression<A> a, Expression<B> b) {
+        return new LambdaProjection<>(type, row -> factory.create((A) row[0], (B) row[1]), a, b);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, C, T> LambdaProjection<T> of(Class<? extends T> type, Factory3<A, B, C, T> factory,
+                                                      Expression<A> a, Expression<B> b, Expression<C> c) {
+        return new LambdaProjection<>(type, row -> factory.create((A) row[0], (B) row[1], (C) row[2]), a, b, c);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, C, D, T> LambdaProjection<T> of(Class<? extends T> type, Factory4<A, B, C, D, T> factory,
+                                                         Expression<A> a, Expression<B> b, Expression<C> c, Expression<D> d) {
+        return new LambdaProjection<>(type, row -> factory.create((A) row[0], (B) row[1], (C) row[2], (D) row[3]), a, b, c, d);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B, C, D, E, T> LambdaProjection<T> of(Class<? extends T> type, Factory5<A, B, C, D, E, T> factory,
+                                                            Expression<A> a, Expression<B> b, Expression<C> c, Expression<D> d, Expression<E> e) {
+        return new LambdaProjection<>(type, row -> factory.create((A) row[0], (B) row[1], (C) row[2], (D) row[3], (E) row[4]), a, b, c, d, e);
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... args) {
+        return factory.apply(args);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    @FunctionalInterface
+    public interface Factory2<A, B, T> {
+        T create(A a, B b);
+    }
+
+    @FunctionalInterface
+    public interface Factory3<A, B, C, T> {
+        T create(A a, B b, C c);
+    }
+
+    @FunctionalInterface
+    public interface Factory4<A, B, C, D, T> {
+        T create(A a, B b, C c, D d);
+    }
+
+    @FunctionalInterface
+    public interface Factory5<A, B, C, D, E, T> {
+        T create(A a, B b, C c, D d, E e);
+    }
+}
@@ -0,0 +1,10 @@
+package com.io.querydsl.repository;
+
+/**
+ * 엔티티를 반환하는 검색에서 연관된 Team 을 어떻게 읽을지 정한다.
+ */
+public enum MemberFetchPlan {
+    LAZY,         // 프록시로 두고, 접근 시 default_batch_fetch_size 단위로 IN 쿼리 한 번에 읽는다.
+    FETCH_JOIN,   // left join fetch 로 한 쿼리에 함께 읽는다.
+    ENTITY_GRAPH  // Member.team 엔티티 그래프를 fetchgraph 힌트로 적용한다.
+}
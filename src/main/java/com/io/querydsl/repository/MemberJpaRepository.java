@@ -1,30 +1,56 @@
 package com.io.querydsl.repository;
 
+import com.io.querydsl.config.QueryDeadline;
 import com.io.querydsl.domain.MemberSearchCondition;
 import com.io.querydsl.dto.MemberTeamDto;
-import com.io.querydsl.dto.QMemberTeamDto;
 import com.io.querydsl.persistence.Member;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUtil;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.io.querydsl.persistence.QMember.member;
 import static com.io.querydsl.persistence.QTeam.team;
+import static com.io.querydsl.repository.InPredicates.in;
+import static com.io.querydsl.repository.UsernamePredicates.usernameMatches;
 import static org.springframework.util.StringUtils.hasText;
 
+// 검색 메서드는 읽기 전용 트랜잭션(FlushMode.MANUAL, 스냅샷 없음)에서 실행한다.
+// 쓰기 트랜잭션에 참여하면 그 트랜잭션의 flush 모드를 따르므로, 검색 전에 변경 내용이 flush 되어 결과에 보인다.
+// searchStream 은 호출한 쪽의 트랜잭션 안에서 소비해야 하므로 제외한다.
 @Repository
 public class MemberJpaRepository {
 
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberSearchQueryCache queryCache;
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, MemberSearchQueryCache queryCache) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.queryCache = queryCache;
     }
 
+    // searchByBuilder 와 search1 은 Querydsl 동적 쿼리 작성 방식(BooleanBuilder, where 다중 파라미터)의 예제이고,
+    // MemberSearchBenchmark 에서 템플릿 캐시를 쓰는 search2 와 비교할 기준이므로 캐시를 거치지 않는다.
+    // (search1 은 username 을 필수로 받는 등 조건 처리도 search2 와 다르다)
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition memberSearchCondition) {
         BooleanBuilder builder = new BooleanBuilder();
         if (hasText(memberSearchCondition.getUsername())) {
@@ -40,8 +66,8 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(memberSearchCondition.getAgeLoe()));
         }
 
-        return queryFactory
-                .select(new QMemberTeamDto(
+        return QueryDeadline.applyTo(queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
                         member.id,
                         member.username,
                         member.age,
@@ -51,12 +77,14 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(builder)
+                .setHint(HibernateHints.HINT_READ_ONLY, true))
                 .fetch();
     }
 
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search1(MemberSearchCondition memberSearchCondition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
+        return QueryDeadline.applyTo(queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
                         member.id,
                         member.username,
                         member.age,
@@ -66,6 +94,7 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(memberTeamDtoEq(memberSearchCondition))
+                .setHint(HibernateHints.HINT_READ_ONLY, true))
                 .fetch();
     }
 
@@ -89,35 +118,111 @@ public class MemberJpaRepository {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
 
+    // 조건 형태별로 캐시된 쿼리 템플릿에 파라미터만 바인딩해서 실행한다.
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search2(MemberSearchCondition memberSearchCondition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
+        return queryCache.search(memberSearchCondition);
+    }
+
+    // 결과를 한 번에 올리지 않고 JDBC fetch size 단위로 읽는다. (트랜잭션 안에서 소비하고 닫아야 한다)
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition memberSearchCondition, int fetchSize) {
+        JPAQuery<MemberTeamDto> query = selectMemberTeamDto(memberSearchCondition);
+        // 스트리밍 요청이 중단되면 다른 스레드에서 취소할 수 있도록 지금 세션을 등록한다.
+        Session session = em.unwrap(Session.class);
+        QueryDeadline.onCancel(session::cancelQuery);
+        return QueryDeadline.applyTo(query)
+                .where(memberTeamDtoEq2(memberSearchCondition))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
+    }
+
+    // 회원 id 순으로 afterId 다음부터 size 건을 읽는다. (키셋 - offset 없이 기본 키 인덱스의 범위만 읽는다)
+    // 청크마다 트랜잭션이 끝나므로 느린 클라이언트가 커넥션이나 스냅샷을 오래 잡고 있지 않는다.
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchChunk(MemberSearchCondition memberSearchCondition, Long afterId, int size) {
+        return QueryDeadline.applyTo(selectMemberTeamDto(memberSearchCondition))
+                .where(memberTeamDtoEq2(memberSearchCondition), afterId != null ? member.id.gt(afterId) : null)
+                .orderBy(member.id.asc())
+                .limit(size)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetch();
+    }
+
+    private JPAQuery<MemberTeamDto> selectMemberTeamDto(MemberSearchCondition memberSearchCondition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
                         member.id,
                         member.username,
                         member.age,
                         team.id,
                         team.name
                 ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(memberTeamDtoEq2(memberSearchCondition))
-                .fetch();
+                .from(member);
+        // 팀 이름 조건이 있으면 inner join 으로 바꿔 팀 이름 인덱스에서 시작할 수 있게 한다.
+        if (memberSearchCondition.filtersByTeam()) {
+            query.join(member.team, team);
+        } else {
+            query.leftJoin(member.team, team);
+        }
+        return query;
     }
 
     private BooleanBuilder memberTeamDtoEq2(MemberSearchCondition memberSearchCondition) {
         BooleanBuilder builder = new BooleanBuilder();
 
-        return builder.and(usernameEq(memberSearchCondition.getUsername()))
+        return builder.and(usernameMatches(memberSearchCondition.getUsername(), memberSearchCondition.getUsernameMatch()))
                 .and(teamNameEq(memberSearchCondition.getTeamName()))
                 .and(ageGoe(memberSearchCondition.getAgeGoe()))
-                .and(ageLoe(memberSearchCondition.getAgeLoe()));
+                .and(ageLoe(memberSearchCondition.getAgeLoe()))
+                .and(in(team.name, memberSearchCondition.getTeamNames()))
+                .and(in(member.id, memberSearchCondition.getMemberIds()));
     }
 
+    @Transactional(readOnly = true)
     public List<Member> search3(MemberSearchCondition memberSearchCondition) {
-        return queryFactory
+        return search3(memberSearchCondition, MemberFetchPlan.LAZY);
+    }
+
+    // 회원 수와 상관없이 Team 로딩 쿼리 수가 일정하도록 fetch 전략을 고른다.
+    @Transactional(readOnly = true)
+    public List<Member> search3(MemberSearchCondition memberSearchCondition, MemberFetchPlan fetchPlan) {
+        JPAQuery<Member> query = queryFactory
                 .selectFrom(member)
-                .leftJoin(member.team, team)
+                .leftJoin(member.team, team);
+
+        if (fetchPlan == MemberFetchPlan.FETCH_JOIN) {
+            query.fetchJoin();
+        } else if (fetchPlan == MemberFetchPlan.ENTITY_GRAPH) {
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(Member.TEAM_GRAPH));
+        }
+
+        return QueryDeadline.applyTo(query)
                 .where(memberTeamDtoEq2(memberSearchCondition))
                 .fetch();
     }
+
+    // 엔티티를 StatelessSession 으로 읽는다. 영속성 컨텍스트와 스냅샷을 거치지 않으므로 대량 조회에도 힙 사용량이 적다.
+    // 반환된 회원은 준영속 상태이고 팀만 함께 읽는다. (team.members 같은 지연 로딩은 쓸 수 없다)
+    @Transactional(readOnly = true)
+    public List<Member> search3Stateless(MemberSearchCondition memberSearchCondition) {
+        JPAQuery<Member> query = queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(memberTeamDtoEq2(memberSearchCondition));
+
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(query.getMetadata(), false, null);
+
+        // 현재 트랜잭션의 커넥션을 같이 쓴다.
+        SessionFactory sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactory.class);
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession(connection)) {
+                Query<Member> statelessQuery = session.createQuery(serializer.toString(), Member.class);
+                JPAUtil.setConstants(statelessQuery, serializer.getConstants(), Collections.emptyMap());
+                QueryDeadline.applyTo(statelessQuery);
+                return statelessQuery.getResultList();
+            }
+        });
+    }
 }
@@ -1,9 +1,12 @@
 package com.io.querydsl.repository;
 
+import com.io.querydsl.domain.MemberCursor;
 import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CursorSlice;
 import com.io.querydsl.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,7 @@ public interface MemberRepositoryCustom {
     List<MemberTeamDto> searchMember(MemberSearchCondition condition);
     Page<MemberTeamDto> searchMemberPagingSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchMemberPagingComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchMemberPagingConcurrent(MemberSearchCondition condition, Pageable pageable);
+    Slice<MemberTeamDto> searchMemberSlice(MemberSearchCondition condition, Pageable pageable);
+    CursorSlice<MemberTeamDto> searchMemberByCursor(MemberSearchCondition condition, MemberCursor cursor, int size);
 }
@@ -1,64 +1,89 @@
 package com.io.querydsl.repository;
 
+import com.io.querydsl.config.MemberPagingProperties;
+import com.io.querydsl.config.QueryDeadline;
+import com.io.querydsl.config.SearchExecutorConfig;
+import com.io.querydsl.domain.MemberCursor;
 import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CursorSlice;
 import com.io.querydsl.dto.MemberTeamDto;
-import com.io.querydsl.dto.QMemberTeamDto;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.io.querydsl.persistence.QMember.member;
 import static com.io.querydsl.persistence.QTeam.team;
+import static com.io.querydsl.repository.InPredicates.in;
+import static com.io.querydsl.repository.UsernamePredicates.usernameMatches;
 import static org.springframework.util.StringUtils.hasText;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
-    public MemberRepositoryImpl(EntityManager em) {
+    private final MemberSearchQueryCache queryCache;
+    private final AsyncTaskExecutor searchExecutor;
+    private final TransactionTemplate readOnly;
+    private final MemberPagingProperties pagingProperties;
+    public MemberRepositoryImpl(EntityManager em,
+                                MemberSearchQueryCache queryCache,
+                                @Qualifier(SearchExecutorConfig.MEMBER_SEARCH_EXECUTOR) AsyncTaskExecutor searchExecutor,
+                                PlatformTransactionManager transactionManager,
+                                MemberPagingProperties pagingProperties) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.queryCache = queryCache;
+        this.searchExecutor = searchExecutor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pagingProperties = pagingProperties;
     }
 
 
-    // 검색
+    // 검색 메서드는 읽기 전용 트랜잭션(FlushMode.MANUAL, 스냅샷 없음)에서 실행한다.
+    // 쓰기 트랜잭션에 참여하면 그 트랜잭션의 flush 모드를 따르므로 아직 flush 되지 않은 변경도 결과에 보인다.
+    // 동시 페이징은 쿼리마다 자기 트랜잭션을 열므로 바깥 트랜잭션(커넥션)을 따로 잡지 않는다.
+    // 검색 (조건 형태별 쿼리 템플릿 캐시 사용)
     @Override
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchMember(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(memberTeamDtoEq2(condition))
-                .fetch();
+        return queryCache.search(condition);
     }
 
 
     // 단순 페이징
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchMemberPagingSimple(MemberSearchCondition condition,
                                                         Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+        QueryResults<MemberTeamDto> results = selectMemberTeamDto(condition)
                 .where(memberTeamDtoEq2(condition))
                 .offset(pageable.getOffset()) //
                 .limit(pageable.getPageSize())
@@ -73,10 +98,97 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     // 복잡한 페이징
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchMemberPagingComplex(MemberSearchCondition condition,
                                                          Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
+        List<MemberTeamDto> content = contentQuery(condition, pageable).fetch();
+
+        // 첫 페이지가 페이지 크기보다 작거나 마지막 페이지면 count 쿼리를 생략한다.
+        // count 쿼리는 실행할 때 만들어야 컨텐츠 쿼리가 쓰고 남은 시간을 타임아웃으로 받는다.
+        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery(condition).fetchOne());
+    }
+
+
+    // 복잡한 페이징 - 컨텐츠와 카운트를 각자의 읽기 전용 트랜잭션(커넥션)에서 동시에 실행한다.
+    // 응답 시간은 두 쿼리의 합이 아니라 더 느린 쪽이 된다.
+    // 두 쿼리는 다른 스레드에서 실행되므로 요청의 남은 시간으로 줄인 제한 시간을 여기서 정해 넘긴다.
+    @Override
+    public Page<MemberTeamDto> searchMemberPagingConcurrent(MemberSearchCondition condition,
+                                                            Pageable pageable) {
+        Duration timeout = QueryDeadline.cap(pagingProperties.getTimeout());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int timeoutMillis = QueryDeadline.toTimeoutHint(timeout);
+
+        CancellableQuery contentTask = new CancellableQuery();
+        CancellableQuery countTask = new CancellableQuery();
+        Future<List<MemberTeamDto>> contentFuture = searchExecutor.submit(() -> readOnly.execute(status ->
+                contentTask.run(em, () -> contentQuery(condition, pageable)
+                        .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMillis)
+                        .fetch())));
+        Future<Long> countFuture = searchExecutor.submit(() -> readOnly.execute(status ->
+                countTask.run(em, () -> countQuery(condition)
+                        .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMillis)
+                        .fetchOne())));
+
+        try {
+            List<MemberTeamDto> content = await(contentFuture, deadline, timeout);
+            return PageableExecutionUtils.getPage(content, pageable, () -> await(countFuture, deadline, timeout));
+        } finally {
+            // 컨텐츠만으로 전체 개수를 알 수 있었거나 실패한 경우 남은 쿼리를 취소하고 커넥션을 돌려받는다.
+            abandon(contentFuture, contentTask);
+            abandon(countFuture, countTask);
+        }
+    }
+
+
+    // 슬라이스 - 페이지 크기보다 한 행 더 읽어 다음 페이지가 있는지만 판단하고 count 쿼리는 실행하지 않는다.
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<MemberTeamDto> searchMemberSlice(MemberSearchCondition condition,
+                                                  Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .where(memberTeamDtoEq2(condition))
+                // 순서가 없으면 offset 으로 나눈 조각끼리 행이 겹치거나 빠질 수 있다.
+                .orderBy(member.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+
+    // 커서(키셋) 페이징 - (age, member.id) 순으로 정렬하고 커서 이후의 행만 읽는다.
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<MemberTeamDto> searchMemberByCursor(MemberSearchCondition condition,
+                                                           MemberCursor cursor,
+                                                           int size) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .where(memberTeamDtoEq2(condition), afterCursor(cursor))
+                .orderBy(member.age.asc(), member.id.asc())
+                .limit(size + 1)
+                .fetch();
+
+        if (content.size() <= size) {
+            return new CursorSlice<>(content, null);
+        }
+
+        content = content.subList(0, size);
+        MemberTeamDto last = content.get(size - 1);
+        return new CursorSlice<>(content, new MemberCursor(last.getAge(), last.getMemberId()).encode());
+    }
+
+
+    // 팀 이름 조건이 있으면 팀이 없는 회원은 어차피 걸러지므로 inner join 으로 바꿔
+    // DB 가 팀 이름 인덱스에서 시작해 (team_id, age) 인덱스로 회원을 찾을 수 있게 한다.
+    private JPAQuery<MemberTeamDto> selectMemberTeamDto(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
                         member.id,
                         member.username,
                         member.age,
@@ -84,35 +196,66 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         team.name
                 ))
                 .from(member)
-                .leftJoin(member.team, team)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        QueryDeadline.applyTo(query);
+        return condition.filtersByTeam()
+                ? query.join(member.team, team)
+                : query.leftJoin(member.team, team);
+    }
+
+    private JPAQuery<MemberTeamDto> contentQuery(MemberSearchCondition condition, Pageable pageable) {
+        return selectMemberTeamDto(condition)
                 .where(memberTeamDtoEq2(condition))
                 .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
+                .limit(pageable.getPageSize());
+    }
 
-        long total = queryFactory
+    // 팀 조건이 없으면 조인 없이 센다. (ManyToOne 조인은 행 수를 바꾸지 않는다)
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        JPAQuery<Long> countQuery = queryFactory
                 .select(member.count())
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(memberTeamDtoEq2(condition))
-                .fetchOne();
+                .from(member);
+        QueryDeadline.applyTo(countQuery);
+        if (condition.filtersByTeam()) {
+            countQuery.join(member.team, team);
+        }
+        return countQuery.where(memberTeamDtoEq2(condition));
+    }
 
-        return new PageImpl<>(content, pageable, total);
+    private void abandon(Future<?> future, CancellableQuery query) {
+        if (!future.isDone()) {
+            query.cancel();
+            future.cancel(true);
+        }
     }
 
+    private <T> T await(Future<T> future, long deadline, Duration timeout) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("member paging did not complete in " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("member paging was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 
     private BooleanBuilder memberTeamDtoEq2(MemberSearchCondition memberSearchCondition) {
         BooleanBuilder builder = new BooleanBuilder();
 
-        return builder.and(usernameEq(memberSearchCondition.getUsername()))
+        return builder.and(usernameMatches(memberSearchCondition.getUsername(), memberSearchCondition.getUsernameMatch()))
                 .and(teamNameEq(memberSearchCondition.getTeamName()))
                 .and(ageGoe(memberSearchCondition.getAgeGoe()))
-                .and(ageLoe(memberSearchCondition.getAgeLoe()));
+                .and(ageLoe(memberSearchCondition.getAgeLoe()))
+                .and(in(team.name, memberSearchCondition.getTeamNames()))
+                .and(in(member.id, memberSearchCondition.getMemberIds()));
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
-    }
     private BooleanExpression teamNameEq(String teamName) {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
@@ -122,5 +265,14 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     private BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
+    // age >= ? 조건을 함께 두어 age 인덱스의 범위 탐색이 가능하도록 한다.
+    private BooleanExpression afterCursor(MemberCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return member.age.goe(cursor.getAge())
+                .and(member.age.gt(cursor.getAge())
+                        .or(member.age.eq(cursor.getAge()).and(member.id.gt(cursor.getMemberId()))));
+    }
 }
 
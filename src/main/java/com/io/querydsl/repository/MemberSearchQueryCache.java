@@ -0,0 +1,211 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.config.QueryDeadline;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CacheStatsDto;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static com.io.querydsl.persistence.QTeam.team;
+import static com.io.querydsl.repository.UsernamePredicates.GRAM;
+import static com.io.querydsl.repository.UsernamePredicates.GRAM_MEMBER;
+import static com.io.querydsl.repository.UsernamePredicates.LIKE_ESCAPE;
+import static com.io.querydsl.repository.UsernamePredicates.containsPattern;
+import static com.io.querydsl.repository.UsernamePredicates.prefixUpperBound;
+import static com.io.querydsl.repository.UsernamePredicates.searchGrams;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건의 형태(shape)별로 직렬화된 JPQL 을 보관한다.
+ * 같은 형태의 요청은 쿼리 트리를 다시 만들지 않고 파라미터만 바인딩한다.
+ * JPQL 문자열이 항상 같으므로 Hibernate 의 쿼리 플랜 캐시도 그대로 적중한다.
+ */
+@Component
+public class MemberSearchQueryCache implements MeterBinder {
+
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<String> USERNAME_UPPER = new Param<>(String.class, "usernameUpper");
+    private static final Param<String> USERNAME_LIKE = new Param<>(String.class, "usernameLike");
+    @SuppressWarnings("rawtypes")
+    private static final Param<Collection> USERNAME_GRAMS = new Param<>(Collection.class, "usernameGrams");
+    private static final Param<Long> USERNAME_GRAM_COUNT = new Param<>(Long.class, "usernameGramCount");
+    @SuppressWarnings("rawtypes")
+    private static final Param<Collection> TEAM_NAMES = new Param<>(Collection.class, "teamNames");
+    @SuppressWarnings("rawtypes")
+    private static final Param<Collection> MEMBER_IDS = new Param<>(Collection.class, "memberIds");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+
+    private static final LambdaProjection<MemberTeamDto> PROJECTION = LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+    );
+
+    private final EntityManager em;
+    private final Map<Integer, QueryTemplate> templates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MemberSearchQueryCache(EntityManager em) {
+        this.em = em;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        List<MemberSearchCondition> parts = InPredicates.split(condition);
+        if (parts.size() == 1) {
+            return searchTemplate(condition);
+        }
+        // 아주 긴 목록 조건은 나눠 조회하고 결과를 합친다.
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (MemberSearchCondition part : parts) {
+            result.addAll(searchTemplate(part));
+        }
+        return result;
+    }
+
+    private List<MemberTeamDto> searchTemplate(MemberSearchCondition condition) {
+        QueryTemplate template = template(condition.shape());
+
+        Query query = em.createQuery(template.jpql)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        JPAUtil.setConstants(query, template.constants, bindings(condition));
+        QueryDeadline.applyTo(query);
+
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(PROJECTION.newInstance((Object[]) row));
+        }
+        return result;
+    }
+
+    public CacheStatsDto stats() {
+        return new CacheStatsDto(hits.sum(), misses.sum(), templates.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("member.search.template.cache", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("member.search.template.cache", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("member.search.template.cache.size", templates, Map::size)
+                .register(registry);
+    }
+
+    private QueryTemplate template(int shape) {
+        QueryTemplate template = templates.get(shape);
+        if (template != null) {
+            hits.increment();
+            return template;
+        }
+        // 같은 shape 의 첫 요청이 동시에 들어와도 템플릿은 하나만 만들어지므로 실제로 만든 쪽만 miss 로 센다.
+        boolean[] created = new boolean[1];
+        template = templates.computeIfAbsent(shape, key -> {
+            created[0] = true;
+            misses.increment();
+            return createTemplate(key);
+        });
+        if (!created[0]) {
+            hits.increment();
+        }
+        return template;
+    }
+
+    private QueryTemplate createTemplate(int shape) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<>(em)
+                .select(PROJECTION)
+                .from(member);
+        // 팀 이름 조건이 있으면 inner join 으로 바꿔 팀 이름 인덱스에서 시작할 수 있게 한다.
+        if ((shape & (1 << 1 | 1 << 7)) != 0) {
+            query.join(member.team, team);
+        } else {
+            query.leftJoin(member.team, team);
+        }
+        query.where(shapePredicate(shape));
+
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(query.getMetadata(), false, null);
+        return new QueryTemplate(serializer.toString(), new ArrayList<>(serializer.getConstants()));
+    }
+
+    private BooleanBuilder shapePredicate(int shape) {
+        BooleanBuilder builder = new BooleanBuilder();
+        if ((shape & 1 << 4) != 0) {
+            builder.and(member.username.goe(USERNAME)).and(member.username.lt(USERNAME_UPPER));
+        } else if ((shape & 1 << 5) != 0) {
+            builder.and(member.id.in(JPAExpressions
+                            .select(GRAM_MEMBER.id)
+                            .from(GRAM_MEMBER)
+                            .join(GRAM_MEMBER.usernameGrams, GRAM)
+                            .where(Expressions.booleanOperation(Ops.IN, GRAM, USERNAME_GRAMS))
+                            .groupBy(GRAM_MEMBER.id)
+                            .having(GRAM.count().eq(USERNAME_GRAM_COUNT))))
+                    .and(member.username.like(USERNAME_LIKE, LIKE_ESCAPE));
+        } else if ((shape & 1 << 6) != 0) {
+            builder.and(member.username.like(USERNAME_LIKE, LIKE_ESCAPE));
+        } else if ((shape & 1) != 0) {
+            builder.and(member.username.eq(USERNAME));
+        }
+        if ((shape & 1 << 1) != 0) builder.and(team.name.eq(TEAM_NAME));
+        if ((shape & 1 << 2) != 0) builder.and(member.age.goe(AGE_GOE));
+        if ((shape & 1 << 3) != 0) builder.and(member.age.loe(AGE_LOE));
+        if ((shape & 1 << 7) != 0) builder.and(Expressions.booleanOperation(Ops.IN, team.name, TEAM_NAMES));
+        if ((shape & 1 << 8) != 0) builder.and(Expressions.booleanOperation(Ops.IN, member.id, MEMBER_IDS));
+        return builder;
+    }
+
+    private Map<ParamExpression<?>, Object> bindings(MemberSearchCondition condition) {
+        Map<ParamExpression<?>, Object> bindings = new HashMap<>();
+        bindings.put(USERNAME, condition.getUsername());
+        if (hasText(condition.getUsername())) {
+            Set<String> grams = searchGrams(condition.getUsername());
+            bindings.put(USERNAME_UPPER, prefixUpperBound(condition.getUsername()));
+            bindings.put(USERNAME_LIKE, containsPattern(condition.getUsername()));
+            bindings.put(USERNAME_GRAMS, grams);
+            bindings.put(USERNAME_GRAM_COUNT, (long) grams.size());
+        }
+        bindings.put(TEAM_NAME, condition.getTeamName());
+        bindings.put(AGE_GOE, condition.getAgeGoe());
+        bindings.put(AGE_LOE, condition.getAgeLoe());
+        bindings.put(TEAM_NAMES, condition.getTeamNames());
+        bindings.put(MEMBER_IDS, condition.getMemberIds());
+        return bindings;
+    }
+
+    private record QueryTemplate(String jpql, List<Object> constants) {
+    }
+}
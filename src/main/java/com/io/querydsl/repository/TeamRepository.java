@@ -0,0 +1,19 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // 팀 이름 조회는 쿼리 캐시에서 팀 id 를, 2차 캐시에서 팀 엔티티를 읽는다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Team.BY_NAME_QUERY_REGION)
+    })
+    Optional<Team> findByName(String name);
+}
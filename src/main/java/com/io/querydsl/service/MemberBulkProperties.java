@@ -0,0 +1,16 @@
+package com.io.querydsl.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "member.bulk")
+public class MemberBulkProperties {
+
+    // 한 트랜잭션(커밋)에서 다루는 기본 키 구간의 크기
+    private int chunkSize = 1000;
+    // 청크 사이에 쉬는 시간 (0 이면 쉬지 않는다)
+    private Duration pause = Duration.ofMillis(20);
+}
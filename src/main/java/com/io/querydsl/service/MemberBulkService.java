@@ -0,0 +1,227 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static com.io.querydsl.persistence.QMember.member;
+
+/**
+ * 회원 대량 수정/삭제.
+ * 테이블 전체를 한 문장으로 바꾸면 잠금과 언두 로그가 한 번에 커지므로, 기본 키 구간으로 나눠 청크마다 커밋하고
+ * 청크 사이에 쉬어서 온라인 검색이 끼어들 틈을 준다.
+ * 조건은 회원 자신의 컬럼(또는 서브쿼리)으로만 줄 수 있다. (벌크 문장은 조인을 쓸 수 없다)
+ * 트랜잭션 밖에서 호출하면 청크마다 커밋하고, 이미 트랜잭션이 있으면 거기에 참여한다.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(MemberBulkProperties.class)
+public class MemberBulkService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MemberBulkProperties properties;
+    private final MemberSearchResultCache resultCache;
+    private final TeamStatsService teamStatsService;
+
+    public MemberBulkService(PlatformTransactionManager transactionManager,
+                             MemberBulkProperties properties,
+                             MemberSearchResultCache resultCache,
+                             TeamStatsService teamStatsService) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.resultCache = resultCache;
+        this.teamStatsService = teamStatsService;
+    }
+
+    public long update(Predicate condition, Consumer<JPAUpdateClause> assignments) {
+        return update(condition, assignments, progress -> {
+        });
+    }
+
+    public long update(Predicate condition, Consumer<JPAUpdateClause> assignments, Consumer<Progress> listener) {
+        return run("update", condition, listener, range -> {
+            TrackingUpdateClause update = new TrackingUpdateClause(em);
+            update.where(condition, range);
+            assignments.accept(update);
+            long updated = update.execute();
+            if (update.updatedPaths.contains(member.username)) {
+                rebuildUsernameGrams(range);
+            }
+            return updated;
+        });
+    }
+
+    public long delete(Predicate condition) {
+        return delete(condition, progress -> {
+        });
+    }
+
+    public long delete(Predicate condition, Consumer<Progress> listener) {
+        return run("delete", condition, listener,
+                range -> new JPADeleteClause(em, member).where(condition, range).execute());
+    }
+
+    private long run(String operation, Predicate condition, Consumer<Progress> listener, ToLongFunction<Predicate> statement) {
+        long startedAt = System.nanoTime();
+
+        // 조건에 걸리는 회원의 기본 키 범위만 나눈다.
+        Tuple bounds = transactionTemplate.execute(status -> new JPAQueryFactory(em)
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .where(condition)
+                .fetchOne());
+        Long minId = bounds.get(member.id.min());
+        Long maxId = bounds.get(member.id.max());
+        if (minId == null) {
+            return 0;
+        }
+
+        int chunkSize = properties.getChunkSize();
+        long totalChunks = (maxId - minId) / chunkSize + 1;
+        long affectedRows = 0;
+        long chunks = 0;
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, maxId);
+            Predicate range = member.id.between(from, to);
+            Long rows = transactionTemplate.execute(status -> {
+                em.flush();
+                long executed = statement.applyAsLong(range);
+                // 벌크 문장은 영속성 컨텍스트와 엔티티 리스너를 거치지 않으므로
+                // 이미 읽어 둔 엔티티와 검색 결과 캐시가 낡은 값을 갖지 않게 직접 비운다.
+                em.clear();
+                resultCache.invalidateAll();
+                return executed;
+            });
+
+            affectedRows += rows;
+            Progress progress = new Progress(operation, ++chunks, totalChunks, affectedRows, to);
+            listener.accept(progress);
+            log.debug("{}", progress);
+
+            if (to < maxId) {
+                pause(progress);
+            }
+        }
+
+        evictSecondLevelCache();
+        // 벌크 문장은 Hibernate 이벤트를 남기지 않으므로 팀 통계를 백그라운드에서 다시 만든다.
+        teamStatsService.invalidate();
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("bulk {} of {} members in {} chunks took {} ms", operation, affectedRows, chunks, elapsedMillis);
+        return affectedRows;
+    }
+
+    private void pause(Progress progress) {
+        if (properties.getPause().isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getPause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 이미 커밋된 청크는 그대로 남는다.
+            throw new IllegalStateException("bulk " + progress.operation() + " interrupted after " + progress, e);
+        }
+    }
+
+    // 벌크 update 는 Member.setUsername 을 거치지 않으므로 바뀐 구간의 3-gram 색인을 직접 다시 만든다.
+    private void rebuildUsernameGrams(Predicate range) {
+        List<Tuple> rows = new JPAQueryFactory(em)
+                .select(member.id, member.username)
+                .from(member)
+                .where(range)
+                .fetch();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = rows.stream().map(row -> row.get(member.id)).toList();
+        em.createNativeQuery("delete from member_username_gram where member_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into member_username_gram (member_id, gram) values (?, ?)")) {
+                for (Tuple row : rows) {
+                    for (String gram : Member.usernameGrams(row.get(member.username))) {
+                        insert.setLong(1, row.get(member.id));
+                        insert.setString(2, gram);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    // 회원이 담기는 2차 캐시 영역은 팀의 회원 컬렉션뿐이다.
+    private void evictSecondLevelCache() {
+        em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictCollectionData(Team.class.getName() + ".members");
+    }
+
+    // assignments 가 어떤 컬럼을 바꾸는지 기록한다.
+    private static class TrackingUpdateClause extends JPAUpdateClause {
+
+        private final Set<Path<?>> updatedPaths = new HashSet<>();
+
+        TrackingUpdateClause(EntityManager em) {
+            super(em, member);
+        }
+
+        @Override
+        public <T> JPAUpdateClause set(Path<T> path, T value) {
+            updatedPaths.add(path);
+            return super.set(path, value);
+        }
+
+        @Override
+        public <T> JPAUpdateClause set(Path<T> path, Expression<? extends T> expression) {
+            updatedPaths.add(path);
+            return super.set(path, expression);
+        }
+
+        @Override
+        public <T> JPAUpdateClause setNull(Path<T> path) {
+            updatedPaths.add(path);
+            return super.setNull(path);
+        }
+
+        @Override
+        public JPAUpdateClause set(List<? extends Path<?>> paths, List<?> values) {
+            updatedPaths.addAll(paths);
+            return super.set(paths, values);
+        }
+    }
+
+    public record Progress(String operation, long chunks, long totalChunks, long affectedRows, long lastId) {
+    }
+}
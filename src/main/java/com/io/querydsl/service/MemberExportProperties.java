@@ -0,0 +1,14 @@
+package com.io.querydsl.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "member.export")
+public class MemberExportProperties {
+
+    // 한 번의 쿼리(읽기 전용 트랜잭션)로 읽는 회원 수
+    private int chunkSize = 5000;
+    // 응답 채널에 쓰기 전에 모아 두는 버퍼 크기 (byte)
+    private int bufferSize = 64 * 1024;
+}
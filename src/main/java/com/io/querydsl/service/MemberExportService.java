@@ -0,0 +1,59 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.domain.ExportFormat;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.MemberJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 검색 조건에 맞는 회원 전체를 파일로 내보낸다.
+ * offset 페이징 대신 회원 id 키셋으로 청크씩 읽고 바로 써서, 결과 크기와 상관없이 청크 하나와 버퍼 하나만 메모리에 둔다.
+ * 트랜잭션 밖에서 호출해야 청크마다 커넥션을 돌려준다.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(MemberExportProperties.class)
+public class MemberExportService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberExportProperties properties;
+
+    public MemberExportService(MemberJpaRepository memberJpaRepository, MemberExportProperties properties) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.properties = properties;
+    }
+
+    public long export(MemberSearchCondition condition, ExportFormat format, OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        int chunkSize = properties.getChunkSize();
+        MemberExportWriter writer = MemberExportWriter.of(format, out, properties.getBufferSize());
+
+        long rows = 0;
+        long chunks = 0;
+        Long afterId = null;
+        List<MemberTeamDto> chunk;
+        do {
+            chunk = memberJpaRepository.searchChunk(condition, afterId, chunkSize);
+            writer.write(chunk);
+            rows += chunk.size();
+            chunks++;
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getMemberId();
+            }
+        } while (chunk.size() == chunkSize);
+
+        writer.finish();
+        out.flush();
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("export {} of {} members in {} chunks took {} ms", format, rows, chunks, elapsedMillis);
+        return rows;
+    }
+}
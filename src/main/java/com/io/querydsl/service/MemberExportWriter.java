@@ -0,0 +1,222 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.domain.ExportFormat;
+import com.io.querydsl.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 내보내기 행을 고정 크기 ByteBuffer 에 인코딩하고, 버퍼가 차면 채널에 쓴다.
+ * 채널 쓰기는 클라이언트가 읽어 갈 때까지 막히므로 느린 클라이언트는 다음 청크를 읽는 속도도 늦춘다. (버퍼 이상은 쌓이지 않는다)
+ */
+abstract class MemberExportWriter {
+
+    protected final ByteBuffer buffer;
+    private final WritableByteChannel channel;
+
+    protected MemberExportWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    static MemberExportWriter of(ExportFormat format, OutputStream out, int bufferSize) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(new GZIPOutputStream(out, bufferSize), bufferSize);
+            case COLUMNAR -> new Columnar(Channels.newChannel(out), bufferSize);
+        };
+    }
+
+    abstract void write(List<MemberTeamDto> chunk) throws IOException;
+
+    // 끝까지 쓴 경우에만 호출한다. 중간에 실패한 내보내기가 완성된 파일처럼 보이지 않도록 트레일러를 쓰지 않는다.
+    void finish() throws IOException {
+        drain();
+    }
+
+    protected void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    protected void put(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    // 버퍼보다 긴 값도 버퍼 크기만큼씩 나눠 쓴다.
+    protected void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 한 줄에 회원 하나. 팀이 없으면 teamId, teamName 이 빈 값이다.
+     * 쉼표, 큰따옴표, 줄바꿈이 들어 있는 username 은 큰따옴표로 감싼다.
+     */
+    static class Csv extends MemberExportWriter {
+
+        private static final byte[] HEADER = "memberId,username,age,teamId,teamName\n".getBytes(StandardCharsets.US_ASCII);
+
+        private final GZIPOutputStream gzip;
+
+        Csv(GZIPOutputStream gzip, int bufferSize) throws IOException {
+            super(Channels.newChannel(gzip), bufferSize);
+            this.gzip = gzip;
+            put(HEADER);
+        }
+
+        @Override
+        void write(List<MemberTeamDto> chunk) throws IOException {
+            for (MemberTeamDto row : chunk) {
+                put(Long.toString(row.getMemberId()).getBytes(StandardCharsets.US_ASCII));
+                put((byte) ',');
+                put(escape(row.getUsername()).getBytes(StandardCharsets.UTF_8));
+                put((byte) ',');
+                put(Integer.toString(row.getAge()).getBytes(StandardCharsets.US_ASCII));
+                put((byte) ',');
+                if (row.getTeamId() != null) {
+                    put(Long.toString(row.getTeamId()).getBytes(StandardCharsets.US_ASCII));
+                }
+                put((byte) ',');
+                if (row.getTeamName() != null) {
+                    put(escape(row.getTeamName()).getBytes(StandardCharsets.UTF_8));
+                }
+                put((byte) '\n');
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            super.finish();
+            gzip.finish();
+        }
+
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * 청크마다 열 단위 블록 하나를 쓴다. (숫자는 big-endian, 문자열은 int 길이 + UTF-8, null 이면 길이 -1)
+     * <pre>
+     * "MCOL" version(byte)
+     * 블록: rows(int) newTeams(int) newTeams x [teamId(long) teamName]
+     *       rows x memberId(long), rows x age(int), rows x team(int), rows x username
+     * 끝: rows = 0
+     * </pre>
+     * team 은 지금까지 나온 팀 사전에서의 위치다. (팀이 없으면 -1) 팀은 처음 나온 블록에서 한 번만 사전에 추가한다.
+     */
+    static class Columnar extends MemberExportWriter {
+
+        static final byte[] MAGIC = {'M', 'C', 'O', 'L'};
+        static final byte VERSION = 1;
+
+        private final Map<Long, Integer> teams = new HashMap<>();
+
+        Columnar(WritableByteChannel channel, int bufferSize) throws IOException {
+            super(channel, bufferSize);
+            put(MAGIC);
+            put(VERSION);
+        }
+
+        @Override
+        void write(List<MemberTeamDto> chunk) throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            int[] team = new int[chunk.size()];
+            List<MemberTeamDto> newTeams = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Long teamId = chunk.get(i).getTeamId();
+                if (teamId == null) {
+                    team[i] = -1;
+                    continue;
+                }
+                Integer index = teams.get(teamId);
+                if (index == null) {
+                    index = teams.size();
+                    teams.put(teamId, index);
+                    newTeams.add(chunk.get(i));
+                }
+                team[i] = index;
+            }
+
+            putInt(chunk.size());
+            putInt(newTeams.size());
+            for (MemberTeamDto row : newTeams) {
+                putLong(row.getTeamId());
+                putString(row.getTeamName());
+            }
+            for (MemberTeamDto row : chunk) {
+                putLong(row.getMemberId());
+            }
+            for (MemberTeamDto row : chunk) {
+                putInt(row.getAge());
+            }
+            for (int index : team) {
+                putInt(index);
+            }
+            for (MemberTeamDto row : chunk) {
+                putString(row.getUsername());
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            putInt(0);
+            super.finish();
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        private void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            put(bytes);
+        }
+    }
+}
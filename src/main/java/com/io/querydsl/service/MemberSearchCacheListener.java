@@ -0,0 +1,96 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.domain.MemberSearchState;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 변경을 검색 결과 캐시에 알린다.
+ * 변경 전 값이 걸리던 조건도 지워야 하므로, Hibernate 가 dirty checking 용으로 이미 들고 있는 변경 전 상태 배열을 쓴다.
+ * (엔티티를 읽을 때마다 따로 스냅샷을 만들지 않으므로 대량 조회와 스트리밍에는 비용이 없다)
+ * JPQL 벌크 연산은 이 리스너를 거치지 않는다. MemberBulkService 가 직접 캐시를 비운다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchCacheListener implements PostInsertEventListener,
+                                                  PostUpdateEventListener,
+                                                  PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberSearchResultCache resultCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getPersister().getMappedClass() == Member.class) {
+            resultCache.memberChanged(null, state(event.getPersister(), event.getId(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.getMappedClass() != Member.class) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            // 스냅샷 없이 갱신된 경우 (예: update 로 재부착) 변경 전 값을 알 수 없다.
+            resultCache.invalidateAll();
+            return;
+        }
+        resultCache.memberChanged(state(persister, event.getId(), event.getOldState()),
+                state(persister, event.getId(), event.getState()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getPersister().getMappedClass() == Member.class) {
+            resultCache.memberChanged(state(event.getPersister(), event.getId(), event.getDeletedState()), null);
+        }
+    }
+
+    private MemberSearchState state(EntityPersister persister, Object id, Object[] state) {
+        return MemberSearchState.of((Long) id,
+                (String) property(persister, state, "username"),
+                (Integer) property(persister, state, "age"),
+                (Team) property(persister, state, "team"));
+    }
+
+    static Object property(EntityPersister persister, Object[] state, String name) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return state[i];
+            }
+        }
+        throw new IllegalArgumentException(persister.getEntityName() + " has no property " + name);
+    }
+}
@@ -0,0 +1,20 @@
+package com.io.querydsl.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "member.search-cache")
+public class MemberSearchCacheProperties {
+
+    private boolean enabled = true;
+    // 캐시 전체에 담을 수 있는 무게 (항목 하나의 무게 = 1 + 행 수)
+    private long maxWeight = 100_000;
+    // 이보다 행이 많은 결과는 캐시하지 않는다.
+    private int maxEntryRows = 2_000;
+    private Duration ttl = Duration.ofSeconds(30);
+    // 캐시에 없는 같은 검색이 동시에 들어오면 DB 조회 하나를 함께 기다린다. (캐시를 꺼도 동작한다)
+    private boolean coalescing = true;
+}
@@ -0,0 +1,154 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.config.QueryDeadline;
+import com.io.querydsl.domain.MemberSearchCondition;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 검색(종류, 정규화된 조건, Pageable)이 동시에 들어오면 먼저 온 요청만 DB 를 조회하고 나머지는 그 결과를 함께 받는다. (single-flight)
+ * 조회가 시작된 뒤 회원이 바뀌었으면(결과 캐시 무효화 버전이 다르면) 진행 중인 조회에 합류하지 않고 새 조회로 그 자리를 바꾼다.
+ * 옛 조회는 끝까지 돌지만 새로 오는 요청은 새 조회에 합류한다.
+ * 합류한 요청은 자기 쿼리 시간 예산(QueryDeadline)만큼만 기다리고, 먼저 온 요청이 자기 예산 초과나 취소로 실패하면 직접 조회한다.
+ */
+@Component
+public class MemberSearchCoalescer implements MeterBinder {
+
+    private final MemberSearchCacheProperties properties;
+    private final MemberSearchResultCache resultCache;
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public MemberSearchCoalescer(MemberSearchCacheProperties properties, MemberSearchResultCache resultCache) {
+        this.properties = properties;
+        this.resultCache = resultCache;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String kind, MemberSearchCondition condition, Pageable pageable, Supplier<T> loader) {
+        if (!properties.isCoalescing()) {
+            return loader.get();
+        }
+
+        Key key = new Key(kind, condition, pageable);
+        Flight flight = new Flight(resultCache.version(), new CompletableFuture<>());
+        while (true) {
+            Flight leader = inFlight.putIfAbsent(key, flight);
+            if (leader == null) {
+                return lead(key, flight, loader);
+            }
+            if (leader.version() >= flight.version()) {
+                coalesced.increment();
+                return follow(leader, loader);
+            }
+            // 낡은 조회를 새 조회로 바꾼다. 그 사이에 다른 요청이 먼저 바꿨거나 조회가 끝났으면 다시 본다.
+            if (inFlight.replace(key, leader, flight)) {
+                return lead(key, flight, loader);
+            }
+        }
+    }
+
+    private <T> T lead(Key key, Flight flight, Supplier<T> loader) {
+        executed.increment();
+        try {
+            T value = loader.get();
+            flight.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("member.search.coalescing", executed, LongAdder::sum)
+                .description("member searches that ran their own database query")
+                .tag("outcome", "executed")
+                .register(registry);
+        FunctionCounter.builder("member.search.coalescing", coalesced, LongAdder::sum)
+                .description("member searches that shared an identical in-flight query")
+                .tag("outcome", "coalesced")
+                .register(registry);
+        Gauge.builder("member.search.coalescing.ratio", this, MemberSearchCoalescer::coalesceRatio)
+                .description("share of member searches served by an identical in-flight query")
+                .register(registry);
+        Gauge.builder("member.search.coalescing.in-flight", inFlight, Map::size)
+                .register(registry);
+    }
+
+    private double coalesceRatio() {
+        long shared = coalesced.sum();
+        long total = executed.sum() + shared;
+        return total == 0 ? 0 : (double) shared / total;
+    }
+
+    // 먼저 온 요청이 실패하면 같은 예외를 받는다.
+    // 단 그 요청만의 사정(시간 예산 초과, 취소)으로 실패했으면 이 요청의 예산으로 직접 조회한다.
+    @SuppressWarnings("unchecked")
+    private <T> T follow(Flight leader, Supplier<T> loader) {
+        QueryDeadline deadline = QueryDeadline.current();
+        try {
+            if (deadline == null) {
+                return (T) leader.result().get();
+            }
+            return (T) leader.result().get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException(deadline.getEndpoint()
+                    + " exceeded its query budget of " + deadline.getBudget() + " waiting for an identical search");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while waiting for an identical search");
+        } catch (CancellationException e) {
+            // CompletableFuture#get 은 CancellationException 으로 끝난 결과를 감싸지 않고 그대로 던진다.
+            return runOwnQuery(loader);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (abandonedByLeader(cause)) {
+                return runOwnQuery(loader);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private <T> T runOwnQuery(Supplier<T> loader) {
+        coalesced.decrement();
+        executed.increment();
+        return loader.get();
+    }
+
+    private static boolean abandonedByLeader(Throwable cause) {
+        return cause instanceof QueryTimeoutException
+                || cause instanceof jakarta.persistence.QueryTimeoutException;
+    }
+
+    private record Key(String kind, MemberSearchCondition condition, Pageable pageable) {
+    }
+
+    private record Flight(long version, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.io.querydsl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.domain.MemberSearchState;
+import com.io.querydsl.dto.CacheStatsDto;
+import com.io.querydsl.dto.MemberTeamDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * 회원 검색 결과 캐시. 키는 (검색 종류, 정규화된 조건, Pageable) 이다.
+ * 회원이 바뀌면 변경 전/후 값이 조건에 걸리는 항목만, 팀이 바뀌면 그 팀과 관련된 항목만 지우고, 벌크 연산은 전부 지운다.
+ * 쓰기 트랜잭션이 커밋되기 전에 다른 요청이 옛 값을 다시 채울 수 있으므로 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+ */
+@Component
+@EnableConfigurationProperties(MemberSearchCacheProperties.class)
+public class MemberSearchResultCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "member.search.results";
+
+    // 전체 무효화를 뜻하는 표식
+    private static final BiPredicate<Key, Entry> ALL = (key, entry) -> true;
+
+    private final MemberSearchCacheProperties properties;
+    private final Cache<Key, Entry> cache;
+    // 무효화할 때마다 올린다. 조회하는 동안 값이 바뀌었으면 읽은 결과를 캐시에 넣지 않는다.
+    private final AtomicLong invalidations = new AtomicLong();
+    // 마지막으로 무효화한 시각 (replica 지연 동안 읽은 결과를 저장하지 않기 위해)
+    private volatile long invalidatedAtNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    public MemberSearchResultCache(MemberSearchCacheProperties properties) {
+        this.properties = properties;
+        // Caffeine 은 항목 수와 무게 제한을 함께 걸 수 없으므로 무게에 항목마다 1 을 더해 둘 다 제한한다.
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight())
+                .weigher((Key key, Entry entry) -> 1 + entry.rows())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public <T> T get(String kind, MemberSearchCondition condition, Pageable pageable,
+                     ToIntFunction<T> rows, Supplier<T> loader) {
+        return get(kind, condition, pageable, rows, loader, Duration.ZERO);
+    }
+
+    // 무효화한 뒤 settleWindow 가 지나기 전에 읽은 결과는 저장하지 않는다.
+    // (replica 로 읽으면 아직 쓰기를 따라잡지 못한 값일 수 있고, 저장하면 TTL 동안 모두에게 나눠 준다)
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, MemberSearchCondition condition, Pageable pageable,
+                     ToIntFunction<T> rows, Supplier<T> loader, Duration settleWindow) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+
+        Key key = new Key(kind, condition, pageable);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached.value();
+        }
+
+        long version = invalidations.get();
+        boolean settled = System.nanoTime() - invalidatedAtNanos >= settleWindow.toNanos();
+        T value = loader.get();
+        int size = rows.applyAsInt(value);
+        if (settled && size <= properties.getMaxEntryRows() && invalidations.get() == version) {
+            cache.put(key, new Entry(value, size));
+        }
+        return value;
+    }
+
+    // 회원이 추가/수정/삭제되었다. (before 는 추가일 때, after 는 삭제일 때 null)
+    public void memberChanged(MemberSearchState before, MemberSearchState after) {
+        evict((key, entry) -> key.condition().matches(before) || key.condition().matches(after));
+    }
+
+    // 팀 이름이 바뀌었거나 팀이 삭제되었다.
+    // 변경 전/후 이름으로 거르는 조건과, 결과에 그 팀의 회원이 들어 있는 항목만 지운다.
+    public void teamChanged(Long teamId, String nameBefore, String nameAfter) {
+        evict((key, entry) -> key.condition().filtersByTeamName(nameBefore)
+                || key.condition().filtersByTeamName(nameAfter)
+                || containsTeam(entry, teamId));
+    }
+
+    public void invalidateAll() {
+        evict(ALL);
+    }
+
+    // 무효화 버전. 값이 같으면 그 사이에 바뀐 회원이 없다.
+    public long version() {
+        return invalidations.get();
+    }
+
+    public CacheStatsDto stats() {
+        return new CacheStatsDto(cache.stats().hitCount(), cache.stats().missCount(), cache.estimatedSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private void evict(BiPredicate<Key, Entry> eviction) {
+        removeIf(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvictions().add(eviction);
+        }
+    }
+
+    private void removeIf(BiPredicate<Key, Entry> eviction) {
+        invalidations.incrementAndGet();
+        invalidatedAtNanos = System.nanoTime();
+        if (eviction == ALL) {
+            cache.invalidateAll();
+            return;
+        }
+        cache.asMap().entrySet().removeIf(e -> eviction.test(e.getKey(), e.getValue()));
+    }
+
+    private static boolean containsTeam(Entry entry, Long teamId) {
+        Collection<?> rows = entry.value() instanceof Slice<?> slice ? slice.getContent()
+                : entry.value() instanceof Collection<?> collection ? collection : List.of();
+        return rows.stream().anyMatch(row -> row instanceof MemberTeamDto dto && Objects.equals(dto.getTeamId(), teamId));
+    }
+
+    // 트랜잭션마다 한 번만 동기화를 등록하고, 그 트랜잭션에서 지운 조건을 모아 두었다가 끝난 뒤에 다시 지운다.
+    @SuppressWarnings("unchecked")
+    private List<BiPredicate<Key, Entry>> pendingEvictions() {
+        List<BiPredicate<Key, Entry>> pending =
+                (List<BiPredicate<Key, Entry>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<BiPredicate<Key, Entry>> evictions = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, evictions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(MemberSearchResultCache.this);
+                removeIf(evictions.contains(ALL) ? ALL
+                        : (key, entry) -> evictions.stream().anyMatch(eviction -> eviction.test(key, entry)));
+            }
+        });
+        return evictions;
+    }
+
+    private record Key(String kind, MemberSearchCondition condition, Pageable pageable) {
+    }
+
+    private record Entry(Object value, int rows) {
+    }
+}
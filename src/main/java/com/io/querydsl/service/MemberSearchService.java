@@ -0,0 +1,83 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.config.MemberPagingProperties;
+import com.io.querydsl.config.ReplicaRoutingDataSource;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * 회원 검색 결과 캐시를 거쳐 MemberRepositoryCustom 검색을 실행한다.
+ * 조건은 정규화해서 조회하므로 "teamA " 와 "teamA" 는 같은 검색(같은 캐시 항목)이다.
+ * 캐시에 없는 같은 검색이 동시에 들어오면 DB 조회는 한 번만 한다. (MemberSearchCoalescer)
+ * replica 라우팅을 켜면 read-your-writes 로 primary 에서 읽어야 하는 요청은 캐시와 합치기를 거치지 않고 직접 조회하고,
+ * 무효화 직후 replica 지연 동안 읽은 결과는 캐시에 넣지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberSearchService {
+
+    private static final String LIST = "list";
+    private static final String PAGE = "page";
+    private static final String SLICE = "slice";
+
+    private final MemberRepository memberRepository;
+    private final MemberSearchResultCache resultCache;
+    private final MemberSearchCoalescer coalescer;
+    private final MemberPagingProperties pagingProperties;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalized();
+        return cachedSearch(LIST, normalized, Pageable.unpaged(), List::size,
+                () -> memberRepository.searchMember(normalized));
+    }
+
+    // 단순 페이징과 복잡한 페이징은 같은 페이지를 돌려주므로 캐시 항목을 함께 쓴다.
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = condition.normalized();
+        return cachedSearch(PAGE, normalized, pageable, Page::getNumberOfElements,
+                () -> memberRepository.searchMemberPagingSimple(normalized, pageable));
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = condition.normalized();
+        return cachedSearch(PAGE, normalized, pageable, Page::getNumberOfElements, () -> {
+            if (pagingProperties.isConcurrent()) {
+                return memberRepository.searchMemberPagingConcurrent(normalized, pageable);
+            }
+            return memberRepository.searchMemberPagingComplex(normalized, pageable);
+        });
+    }
+
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchCondition normalized = condition.normalized();
+        return cachedSearch(SLICE, normalized, pageable, Slice::getNumberOfElements,
+                () -> memberRepository.searchMemberSlice(normalized, pageable));
+    }
+
+    private <T> T cachedSearch(String kind, MemberSearchCondition normalized, Pageable pageable,
+                               ToIntFunction<T> rows, Supplier<T> loader) {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return resultCache.get(kind, normalized, pageable, rows,
+                    () -> coalescer.execute(kind, normalized, pageable, loader));
+        }
+        // 캐시 항목과 먼저 온 요청의 결과는 replica 에서 읽은 것일 수 있다.
+        if (routing.readsFromPrimary()) {
+            return loader.get();
+        }
+        return resultCache.get(kind, normalized, pageable, rows,
+                () -> coalescer.execute(kind, normalized, pageable, loader), routing.getReadYourWritesWindow());
+    }
+}
@@ -0,0 +1,65 @@
+package com.io.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.repository.MemberJpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 검색 결과를 NDJSON(한 줄에 회원 하나)으로 바로 써 내려간다.
+ * 결과 전체를 List 로 모으지 않으므로 결과 크기와 상관없이 힙 사용량이 일정하다.
+ */
+@Service
+public class MemberStreamService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+    private final int flushInterval;
+
+    public MemberStreamService(MemberJpaRepository memberJpaRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${member.stream.fetch-size:500}") int fetchSize,
+                               @Value("${member.stream.flush-interval:1000}") int flushInterval) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.objectMapper = objectMapper;
+        // 행마다 flush 하지 않고 flushInterval 단위로 내보낸다.
+        this.rowWriter = objectMapper.writerFor(MemberTeamDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long writeNdjson(MemberSearchCondition condition, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, fetchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++rows % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,66 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.persistence.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import static com.io.querydsl.service.MemberSearchCacheListener.property;
+
+/**
+ * 팀이 바뀌면 그 팀의 회원이 들어 있는 결과와, 변경 전/후 팀 이름으로 거르는 조건의 결과만 지운다.
+ * 새 팀에는 아직 회원이 없으므로 추가는 결과를 바꾸지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamSearchCacheListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberSearchResultCache resultCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.getMappedClass() != Team.class) {
+            return;
+        }
+        String name = (String) property(persister, event.getState(), "name");
+        if (event.getOldState() == null) {
+            resultCache.invalidateAll();
+            return;
+        }
+        resultCache.teamChanged((Long) event.getId(), (String) property(persister, event.getOldState(), "name"), name);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.getMappedClass() == Team.class) {
+            String name = (String) property(persister, event.getDeletedState(), "name");
+            resultCache.teamChanged((Long) event.getId(), name, name);
+        }
+    }
+}
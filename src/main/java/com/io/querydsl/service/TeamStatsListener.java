@@ -0,0 +1,124 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+import static com.io.querydsl.service.MemberSearchCacheListener.property;
+
+/**
+ * 커밋된 회원/팀 변경을 팀 통계에 반영한다.
+ * 커밋 이후에만 호출되므로 롤백된 변경은 반영되지 않고, 변경 전/후 값은 Hibernate 가 넘겨주는 상태 배열에서 읽는다.
+ * 회원의 팀 이동(changeTeam)은 team 속성이 바뀐 update 로 들어온다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamStatsListener implements PostCommitInsertEventListener,
+                                          PostCommitUpdateEventListener,
+                                          PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TeamStatsService teamStatsService;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        if (persister.getMappedClass() == Member.class) {
+            teamStatsService.memberAdded(teamId(persister, state), age(persister, state));
+        } else if (persister.getMappedClass() == Team.class) {
+            teamStatsService.teamSaved((Long) event.getId(), (String) property(persister, state, "name"));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        if (persister.getMappedClass() == Team.class) {
+            teamStatsService.teamSaved((Long) event.getId(), (String) property(persister, state, "name"));
+            return;
+        }
+        if (persister.getMappedClass() != Member.class) {
+            return;
+        }
+
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // 스냅샷 없이 갱신된 경우 (예: update 로 재부착) 변경 전 값을 알 수 없다.
+            teamStatsService.invalidate();
+            return;
+        }
+        Long oldTeamId = teamId(persister, oldState);
+        Long newTeamId = teamId(persister, state);
+        int oldAge = age(persister, oldState);
+        int newAge = age(persister, state);
+        if (!Objects.equals(oldTeamId, newTeamId) || oldAge != newAge) {
+            teamStatsService.memberRemoved(oldTeamId, oldAge);
+            teamStatsService.memberAdded(newTeamId, newAge);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+        if (persister.getMappedClass() == Member.class) {
+            teamStatsService.memberRemoved(teamId(persister, state), age(persister, state));
+        } else if (persister.getMappedClass() == Team.class) {
+            teamStatsService.teamRemoved((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private Long teamId(EntityPersister persister, Object[] state) {
+        Team team = (Team) property(persister, state, "team");
+        return team != null ? team.getId() : null;
+    }
+
+    private int age(EntityPersister persister, Object[] state) {
+        return (Integer) property(persister, state, "age");
+    }
+}
@@ -0,0 +1,253 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.dto.TeamStatsDto;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static com.io.querydsl.persistence.QTeam.team;
+
+/**
+ * 팀별 회원 수/나이 합계/최소/최대를 메모리에 유지한다.
+ * 시작할 때 group by 한 번으로 만들고, 이후에는 커밋된 회원/팀 변경(TeamStatsListener)만 반영하므로
+ * 통계 조회는 회원 수가 아니라 팀 수에 비례한다.
+ * 벌크 연산처럼 변경을 하나씩 알 수 없으면 invalidate() 로 백그라운드 재구성을 한 번 건다.
+ * 재구성하는 동안 조회는 이전 값을 보고, 그 사이에 들어온 변경은 모아 두었다가 새 값에 다시 반영한다.
+ * 재구성 도중에 또 invalidate() 되면 끝난 뒤에 한 번 더 만든다. (세대 번호로 판단한다)
+ * 집계 쿼리가 도는 동안 도착한 변경은 결과에 이미 들어갔는지 알 수 없으므로, 반영은 하되 곧바로 한 번 더 만든다.
+ */
+@Slf4j
+@Service
+public class TeamStatsService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate readOnly;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("team-stats-rebuild").daemon().factory());
+    private volatile Map<Long, TeamAggregate> aggregates = new ConcurrentHashMap<>();
+    // invalidate() 마다 올린다. builtGeneration 과 같으면 통계가 최신이다.
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long builtGeneration = -1;
+    // 진행 중인 재구성과, 그동안 들어온 변경 (lock 으로 보호)
+    private final Object lock = new Object();
+    private CompletableFuture<Void> rebuilding;
+    private List<Change> changesDuringRebuild;
+
+    public TeamStatsService(PlatformTransactionManager transactionManager) {
+        // 커밋된 데이터로만 만들도록 호출한 쪽 트랜잭션과 분리한다.
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // 백그라운드 재구성을 건다. 이미 진행 중이면 그 재구성을 돌려준다.
+    public CompletableFuture<Void> rebuild() {
+        synchronized (lock) {
+            if (rebuilding == null) {
+                long startedGeneration = generation.get();
+                changesDuringRebuild = new ArrayList<>();
+                rebuilding = CompletableFuture.runAsync(() -> runRebuild(startedGeneration), rebuildExecutor);
+            }
+            return rebuilding;
+        }
+    }
+
+    public CompletableFuture<Void> invalidate() {
+        generation.incrementAndGet();
+        return rebuild();
+    }
+
+    public boolean isStale() {
+        return builtGeneration != generation.get();
+    }
+
+    public List<TeamStatsDto> stats() {
+        List<TeamStatsDto> result = new ArrayList<>(aggregates.size());
+        aggregates.forEach((teamId, aggregate) -> result.add(aggregate.snapshot(teamId)));
+        result.sort(Comparator.comparing(TeamStatsDto::getTeamName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private void runRebuild(long startedGeneration) {
+        boolean swapped = false;
+        try {
+            long snapshotStartedAt = System.nanoTime();
+            Map<Long, TeamAggregate> rebuilt = load();
+            swap(rebuilt, startedGeneration, snapshotStartedAt, System.nanoTime());
+            swapped = true;
+        } catch (RuntimeException e) {
+            log.warn("team stats rebuild failed", e);
+        } finally {
+            synchronized (lock) {
+                rebuilding = null;
+                changesDuringRebuild = null;
+            }
+        }
+        // 재구성하는 동안 invalidate() 되었으면 그 변경이 빠졌을 수 있으므로 한 번 더 만든다.
+        if (swapped && isStale()) {
+            rebuild();
+        }
+    }
+
+    private Map<Long, TeamAggregate> load() {
+        long startedAt = System.nanoTime();
+        Map<Long, TeamAggregate> rebuilt = readOnly.execute(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            Map<Long, TeamAggregate> result = new ConcurrentHashMap<>();
+            for (Tuple row : queryFactory.select(team.id, team.name).from(team).fetch()) {
+                result.put(row.get(team.id), new TeamAggregate(row.get(team.name)));
+            }
+
+            // 나이별 인원까지 읽어 두어야 삭제/이동 후에도 최소/최대를 다시 계산할 수 있다.
+            List<Tuple> ages = queryFactory
+                    .select(member.team.id, member.age, member.count())
+                    .from(member)
+                    .where(member.team.isNotNull())
+                    .groupBy(member.team.id, member.age)
+                    .fetch();
+            for (Tuple row : ages) {
+                result.computeIfAbsent(row.get(member.team.id), id -> new TeamAggregate(null))
+                        .add(row.get(member.age), row.get(member.count()));
+            }
+            return result;
+        });
+        log.info("rebuilt stats of {} teams in {} ms", rebuilt.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return rebuilt;
+    }
+
+    // 재구성하는 동안 들어온 변경을 새 값에 다시 반영한 뒤에 바꿔 끼운다.
+    // 집계 쿼리 전에 도착한 변경은 커밋도 그 전이므로 결과에 들어 있다. 쿼리 도중에 도착한 변경은 겹칠 수 있으므로
+    // 세대 번호를 올려 끝난 뒤에 한 번 더 만든다. (쿼리가 끝난 뒤에 도착한 변경은 결과에 없다)
+    private void swap(Map<Long, TeamAggregate> rebuilt, long startedGeneration,
+                      long snapshotStartedAt, long snapshotEndedAt) {
+        synchronized (lock) {
+            boolean overlapped = false;
+            for (Change change : changesDuringRebuild) {
+                if (change.arrivedAt() - snapshotStartedAt < 0) {
+                    continue;
+                }
+                change.apply().accept(rebuilt);
+                overlapped |= change.arrivedAt() - snapshotEndedAt <= 0;
+            }
+            aggregates = rebuilt;
+            builtGeneration = startedGeneration;
+            if (overlapped) {
+                generation.incrementAndGet();
+            }
+        }
+    }
+
+    // 현재 값에 반영하고, 재구성 중이면 새 값에도 반영하도록 남겨 둔다.
+    private void apply(Consumer<Map<Long, TeamAggregate>> change) {
+        synchronized (lock) {
+            change.accept(aggregates);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new Change(System.nanoTime(), change));
+            }
+        }
+    }
+
+    void teamSaved(Long teamId, String name) {
+        apply(target -> target.computeIfAbsent(teamId, id -> new TeamAggregate(name)).name = name);
+    }
+
+    void teamRemoved(Long teamId) {
+        apply(target -> target.remove(teamId));
+    }
+
+    void memberAdded(Long teamId, int age) {
+        if (teamId != null) {
+            apply(target -> target.computeIfAbsent(teamId, id -> new TeamAggregate(null)).add(age, 1));
+        }
+    }
+
+    void memberRemoved(Long teamId, int age) {
+        if (teamId != null) {
+            apply(target -> {
+                TeamAggregate aggregate = target.get(teamId);
+                // 없는 나이를 빼라는 것은 통계가 이미 어긋났다는 뜻이므로 다시 만든다.
+                if (aggregate != null && !aggregate.remove(age)) {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    private record Change(long arrivedAt, Consumer<Map<Long, TeamAggregate>> apply) {
+    }
+
+    private static final class TeamAggregate {
+
+        private volatile String name;
+        private long count;
+        private long sum;
+        // 나이별 인원 (최소/최대는 양 끝 키)
+        private final TreeMap<Integer, Long> ages = new TreeMap<>();
+
+        TeamAggregate(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(int age, long members) {
+            count += members;
+            sum += age * members;
+            ages.merge(age, members, Long::sum);
+        }
+
+        synchronized boolean remove(int age) {
+            Long members = ages.get(age);
+            if (members == null) {
+                return false;
+            }
+            if (members == 1) {
+                ages.remove(age);
+            } else {
+                ages.put(age, members - 1);
+            }
+            count--;
+            sum -= age;
+            return true;
+        }
+
+        synchronized TeamStatsDto snapshot(Long teamId) {
+            if (count == 0) {
+                return new TeamStatsDto(teamId, name, 0, null, null, null);
+            }
+            return new TeamStatsDto(teamId, name, count, (double) sum / count, ages.firstKey(), ages.lastKey());
+        }
+    }
+}
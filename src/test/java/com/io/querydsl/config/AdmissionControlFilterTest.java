@@ -0,0 +1,114 @@
+package com.io.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ofMillis(50),
+            List.of("/members/export"), meterRegistry);
+
+    // 허용 수를 넘는 요청은 대기 예산이 지나면 503 으로 거절된다.
+    @Test
+    void rejectWhenWaitBudgetExceeded() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/members/v1"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/members/v1"), rejected, new MockFilterChain());
+
+        release.countDown();
+        holder.join();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/members/v1"), admitted, new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("member.admission.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("member.admission.queue").tag("outcome", "admitted").timer().count()).isEqualTo(2);
+    }
+
+    // 제외한 경로(스트리밍 응답)는 허용을 잡지 않으므로 허용이 모두 쓰이고 있어도 통과한다.
+    @Test
+    void excludedPathsBypassAdmission() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/members/export"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/members/v1"), search, new MockFilterChain());
+
+        release.countDown();
+        holder.join();
+        assertThat(search.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("member.admission.queue").tag("outcome", "admitted").timer().count()).isEqualTo(1);
+    }
+
+    // 커넥션을 응답 내내 잡는 NDJSON 스트림은 기본값으로 빼지 않는다.
+    @Test
+    void onlyChunkedExportExcludedByDefault() {
+        assertThat(new ExecutionProperties().getAdmission().getExcludedPaths()).containsExactly("/members/export");
+    }
+
+    // 풀이 시작되기 전이라도 지정하지 않은 풀 크기는 Hikari 기본값(10)으로 본다.
+    @Test
+    void permitsFollowPoolSize() {
+        HikariDataSource dataSource = new HikariDataSource();
+        assertThat(ExecutionConfig.poolSize(dataSource)).isEqualTo(10);
+
+        dataSource.setMaximumPoolSize(4);
+        assertThat(ExecutionConfig.poolSize(dataSource)).isEqualTo(4);
+    }
+
+    // 동시 페이징은 요청 하나가 커넥션 2개를 쓰므로 허용 수를 풀의 절반으로 줄인다.
+    @Test
+    void permitsHalvedForConcurrentPaging() {
+        assertThat(ExecutionConfig.defaultPermits(10, false)).isEqualTo(10);
+        assertThat(ExecutionConfig.defaultPermits(10, true)).isEqualTo(5);
+        assertThat(ExecutionConfig.defaultPermits(1, true)).isEqualTo(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.io.querydsl.config;
+
+import com.io.querydsl.contorller.QueryTimeoutAdvice;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.QueryTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "member.deadline.endpoints[/members/v3]=1ns")
+@AutoConfigureMockMvc
+class QueryDeadlineTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired QueryDeadlineMetrics queryDeadlineMetrics;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void clear() {
+        QueryDeadline.clear();
+    }
+
+    // Hibernate 가 초 단위로 반올림하므로 1초 미만의 남은 시간이 0(무제한)이 되지 않게 올린다.
+    @Test
+    void timeoutHintRoundsUpToWholeSeconds() {
+        assertThat(QueryDeadline.toTimeoutHint(Duration.ofMillis(300))).isEqualTo(1000);
+        assertThat(QueryDeadline.toTimeoutHint(Duration.ofMillis(1000))).isEqualTo(1000);
+        assertThat(QueryDeadline.toTimeoutHint(Duration.ofMillis(1001))).isEqualTo(2000);
+
+        QueryDeadline.bind(new QueryDeadline("/test", Duration.ofSeconds(10)));
+        assertThat(QueryDeadline.cap(Duration.ofSeconds(3))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(QueryDeadline.cap(Duration.ofSeconds(30))).isLessThanOrEqualTo(Duration.ofSeconds(10));
+    }
+
+    // 예산을 다 쓴 요청은 DB 에 가지 않고 503 으로 끝난다.
+    @Test
+    void exhaustedBudgetIsRejected() throws Exception {
+        mockMvc.perform(get("/members/v3"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        assertThat(meterRegistry.get("member.query.deadline")
+                .tag("endpoint", "/members/v3")
+                .tag("outcome", "timeout")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    // 남은 시간이 JDBC 쿼리 타임아웃으로 걸려 오래 걸리는 쿼리가 중단되고 503 으로 응답한다.
+    // Hikari 가 타임아웃 난 커넥션을 닫으므로 롤백이 실패해 TransactionSystemException 으로 감싸져 올라온다.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void statementTimeoutFollowsRemainingBudget() throws Exception {
+        QueryDeadline.bind(new QueryDeadline("/test", Duration.ofMillis(300)));
+        long startedAt = System.nanoTime();
+
+        Throwable thrown = catchThrowable(() -> transactionTemplate.execute(status -> QueryDeadline.applyTo(em.createNativeQuery(
+                        "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b where a.x + b.x < 0"))
+                .getSingleResult()));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(5));
+        assertThat(thrown).isInstanceOf(TransactionSystemException.class);
+        assertThat(((TransactionSystemException) thrown).getApplicationException()).isInstanceOf(QueryTimeoutException.class);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new QueryTimeoutAdvice(queryDeadlineMetrics).transactionFailure((TransactionSystemException) thrown,
+                new MockHttpServletRequest("GET", "/test"), response);
+        assertThat(response.getStatus()).isEqualTo(503);
+    }
+
+    // 비동기 요청이 중단되면 등록된 취소 동작을 한 번만 실행하고, 이후 쿼리는 시작하지 않는다.
+    @Test
+    void abortedRequestCancelsQueries() {
+        QueryDeadline deadline = new QueryDeadline("/members/v1/stream", Duration.ofSeconds(10));
+        AtomicInteger cancelled = new AtomicInteger();
+        QueryDeadline.bind(deadline);
+        QueryDeadline.onCancel(cancelled::incrementAndGet);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members/v1/stream");
+        request.setAttribute(QueryDeadline.ATTRIBUTE, deadline);
+        QueryDeadlineInterceptor interceptor = new QueryDeadlineInterceptor(queryDeadlineMetrics);
+        interceptor.handleError(new ServletWebRequest(request), () -> null, new IllegalStateException("broken pipe"));
+        interceptor.handleTimeout(new ServletWebRequest(request), () -> null);
+
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThatThrownBy(() -> QueryDeadline.cap(Duration.ofSeconds(1)))
+                .isInstanceOf(org.springframework.dao.QueryTimeoutException.class)
+                .hasMessageContaining("cancelled");
+        assertThat(meterRegistry.get("member.query.deadline")
+                .tag("endpoint", "/members/v1/stream")
+                .tag("outcome", "cancelled")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+}
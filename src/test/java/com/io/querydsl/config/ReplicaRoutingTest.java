@@ -0,0 +1,190 @@
+package com.io.querydsl.config;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.repository.MemberRepository;
+import com.io.querydsl.service.MemberSearchResultCache;
+import com.io.querydsl.service.MemberSearchService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].url=" + ReplicaRoutingTest.REPLICA0_URL,
+        "datasource.routing.replicas[0].username=sa",
+        "datasource.routing.replicas[1].url=" + ReplicaRoutingTest.REPLICA1_URL,
+        "datasource.routing.replicas[1].username=sa",
+        "datasource.routing.validation-query=select count(*) from member",
+        "datasource.routing.health-check-interval=1h",
+        "datasource.routing.read-your-writes-window=300ms",
+})
+class ReplicaRoutingTest {
+
+    static final String REPLICA0_URL = "jdbc:h2:mem:routing-replica0;DB_CLOSE_DELAY=-1";
+    static final String REPLICA1_URL = "jdbc:h2:mem:routing-replica1;DB_CLOSE_DELAY=-1";
+
+    @Autowired HikariDataSource primaryDataSource;
+    @Autowired ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired DataSource dataSource;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberSearchService memberSearchService;
+    @Autowired MemberSearchResultCache memberSearchResultCache;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica0 = replica(REPLICA0_URL);
+    JdbcTemplate replica1 = replica(REPLICA1_URL);
+
+    // 복제 대신 primary 의 스키마만 replica 로 옮기고, 어느 DB 에서 읽었는지 알 수 있게 회원 이름을 다르게 넣는다.
+    @BeforeEach
+    void before() {
+        primary = new JdbcTemplate(primaryDataSource);
+        primary.update("delete from member_username_gram");
+        primary.update("delete from member");
+        primary.update("insert into member (member_id, username, age) values (1, 'primary', 10)");
+
+        List<String> schema = primary.queryForList("script nodata", String.class);
+        copySchema(replica0, schema, "replica0");
+        copySchema(replica1, schema, "replica1");
+        replicaRoutingDataSource.checkHealth();
+    }
+
+    // 읽기 전용 검색은 replica 들에 번갈아 간다.
+    @Test
+    void readOnlySearchRoundRobin() {
+        List<String> readFrom = searchUsernames(4);
+
+        assertThat(readFrom).containsOnly("replica0", "replica1");
+        assertThat(readFrom.get(0)).isNotEqualTo(readFrom.get(1));
+        assertThat(meterRegistry.get("member.datasource.route").tag("reason", "read").counters()).hasSize(2);
+    }
+
+    // 쓰기가 커밋된 뒤 잠시 동안은 같은 스레드의 읽기가 primary 로 간다.
+    @Test
+    void readYourWrites() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.save(new Member(2L, "written", 20)));
+
+        assertThat(memberRepository.searchMember(new MemberSearchCondition()))
+                .extracting("username").containsExactlyInAnyOrder("primary", "written");
+
+        Thread.sleep(400);
+        assertThat(searchUsernames(2)).containsOnly("replica0", "replica1");
+    }
+
+    // 동시 페이징은 컨텐츠/카운트 쿼리를 다른 스레드에서 실행하지만 read-your-writes 는 요청 스레드를 따른다.
+    @Test
+    void readYourWritesOnSearchExecutor() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.save(new Member(2L, "written", 20)));
+
+        Page<MemberTeamDto> page = memberRepository.searchMemberPagingConcurrent(
+                new MemberSearchCondition(), PageRequest.of(0, 1));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting("username").containsAnyOf("primary", "written");
+    }
+
+    // 쓰기가 커밋된 뒤 같은 세션의 검색은 replica 에서 읽어 둔 캐시 결과를 받지 않고,
+    // 다른 세션이 그 사이 replica 에서 읽은 결과는 캐시에 남지 않는다.
+    @Test
+    void readYourWritesBypassesSearchCache() throws Exception {
+        memberSearchResultCache.invalidateAll();
+        Thread.sleep(400);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(inSession(null, () -> memberSearchService.search(condition)))
+                .extracting("username").containsOnly("replica0", "replica1");
+        assertThat(memberSearchResultCache.stats().getSize()).isEqualTo(1);
+
+        inSession("s1", () -> new TransactionTemplate(transactionManager).execute(status ->
+                memberRepository.save(new Member(2L, "written", 20))));
+
+        assertThat(inSession("s1", () -> memberSearchService.search(condition)))
+                .extracting("username").containsExactlyInAnyOrder("primary", "written");
+        assertThat(inSession(null, () -> memberSearchService.search(condition)))
+                .extracting("username").containsOnly("replica0", "replica1");
+        assertThat(memberSearchResultCache.stats().getSize()).isZero();
+    }
+
+    // 허용 수는 primary 와 replica 커넥션 풀을 합한 크기를 따른다. (지정하지 않은 풀은 10)
+    @Test
+    void permitsFollowRoutedPools() {
+        assertThat(ExecutionConfig.poolSize(dataSource)).isEqualTo(30);
+    }
+
+    // 확인에 실패한 replica 는 빼고, 모두 빠지면 primary 에서 읽는다.
+    @Test
+    void unhealthyReplicaExcluded() {
+        replica0.execute("drop table member_username_gram");
+        replica0.execute("drop table member");
+        replicaRoutingDataSource.checkHealth();
+
+        assertThat(searchUsernames(4)).containsOnly("replica1");
+
+        replica1.execute("drop table member_username_gram");
+        replica1.execute("drop table member");
+        replicaRoutingDataSource.checkHealth();
+
+        assertThat(searchUsernames(2)).containsOnly("primary");
+    }
+
+    // 요청마다 새 스레드에서 세션 헤더를 묶은 것처럼 실행한다. (스레드의 마지막 쓰기 시각은 이어지지 않는다)
+    private static <T> T inSession(String session, Supplier<T> work) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            ReplicaRoutingDataSource.bindSession(session);
+            try {
+                result.set(work.get());
+            } finally {
+                ReplicaRoutingDataSource.clearSession();
+            }
+        });
+        thread.join();
+        return result.get();
+    }
+
+    private List<String> searchUsernames(int times) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            List<MemberTeamDto> result = memberRepository.searchMember(new MemberSearchCondition());
+            assertThat(result).hasSize(1);
+            usernames.add(result.get(0).getUsername());
+        }
+        return usernames;
+    }
+
+    private void copySchema(JdbcTemplate replica, List<String> schema, String username) {
+        replica.execute("drop all objects");
+        for (String statement : schema) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        replica.update("insert into member (member_id, username, age) values (1, ?, 10)", username);
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
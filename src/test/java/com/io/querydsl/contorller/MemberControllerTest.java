@@ -0,0 +1,91 @@
+package com.io.querydsl.contorller;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.io.querydsl.service.MemberSearchResultCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    private static final int MEMBERS = 200;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired MemberSearchResultCache memberSearchResultCache;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (long id = 1; id <= MEMBERS; id++) {
+            em.persist(new Member(id, "member" + id, (int) (id % 100), id % 2 == 0 ? teamA : teamB));
+        }
+        em.persist(new Member(MEMBERS + 1L, "loner", 99, null));
+        em.flush();
+        em.clear();
+        memberSearchResultCache.invalidateAll();
+    }
+
+    // 한 행을 더 읽어 다음 페이지 여부를 판단한다.
+    @Test
+    void sliceTest() throws Exception {
+        mockMvc.perform(get("/members/v5").param("teamName", "teamA").param("size", "60"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content", hasSize(60)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+
+        mockMvc.perform(get("/members/v5").param("teamName", "teamA").param("size", "60").param("page", "1"))
+                .andExpect(jsonPath("$.content", hasSize(40)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    // 열 단위 응답은 팀을 사전으로 한 번씩만 담고, 팀이 없는 회원은 -1 로 표시한다.
+    @Test
+    void columnarTest() throws Exception {
+        mockMvc.perform(get("/members/v5").param("ageGoe", "99")
+                        .accept(MemberController.COLUMNAR_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MemberController.COLUMNAR_JSON_VALUE))
+                .andExpect(jsonPath("$.username", containsInAnyOrder("member99", "member199", "loner")))
+                .andExpect(jsonPath("$.age", contains(99, 99, 99)))
+                .andExpect(jsonPath("$.team", containsInAnyOrder(0, 0, -1)))
+                .andExpect(jsonPath("$.teamNames", contains("teamB")))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    // 같은 행이라도 열 단위 응답은 페이지(v3) 응답의 절반도 되지 않는다.
+    @Test
+    void columnarPayloadSizeTest() throws Exception {
+        int pageBytes = mockMvc.perform(get("/members/v3").param("size", "200"))
+                .andReturn().getResponse().getContentAsByteArray().length;
+        int columnarBytes = mockMvc.perform(get("/members/v5").param("size", "200")
+                        .accept(MemberController.COLUMNAR_JSON_VALUE))
+                .andReturn().getResponse().getContentAsByteArray().length;
+
+        assertThat(columnarBytes).isLessThan(pageBytes / 2);
+    }
+}
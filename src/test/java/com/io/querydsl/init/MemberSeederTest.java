@@ -0,0 +1,86 @@
+package com.io.querydsl.init;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static com.io.querydsl.persistence.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@SpringBootTest
+class MemberSeederTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberSeeder memberSeeder;
+
+    // 청크 단위 적재 (테스트 트랜잭션에 참여하므로 끝나면 롤백된다)
+    @Test
+    void seedTest() {
+        MemberSeedProperties properties = new MemberSeedProperties();
+        properties.setCount(250);
+        properties.setTeamCount(3);
+        properties.setMinAge(20);
+        properties.setMaxAge(29);
+        properties.setAgeDistribution(MemberSeedProperties.AgeDistribution.NORMAL);
+        properties.setChunkSize(100);
+
+        long seeded = memberSeeder.seed(properties);
+
+        // 다른 테스트가 커밋한 회원/팀이 같은 DB 에 있을 수 있으므로 이번에 넣은 id 범위만 본다.
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        Tuple stats = queryFactory
+                .select(member.count(), member.age.min(), member.age.max())
+                .from(member)
+                .where(member.id.between(0L, 249L))
+                .fetchOne();
+
+        assertThat(seeded).isEqualTo(250);
+        assertThat(stats.get(member.count())).isEqualTo(250);
+        assertThat(stats.get(member.age.min())).isGreaterThanOrEqualTo(20);
+        assertThat(stats.get(member.age.max())).isLessThanOrEqualTo(29);
+        assertThat(queryFactory
+                .select(team.name)
+                .distinct()
+                .from(member)
+                .join(member.team, team)
+                .where(member.id.between(0L, 249L))
+                .fetch())
+                .containsExactlyInAnyOrder("teamA", "teamB", "teamC");
+
+        Member member84 = em.find(Member.class, 84L);
+        Team teamA = member84.getTeam();
+        assertThat(teamA.getName()).isEqualTo("teamA");
+    }
+
+    // 청크 크기가 0 이면 적재 루프가 끝나지 않으므로 시작 전에 거절한다.
+    @Test
+    void seedRejectsNonPositiveChunkSizeTest() {
+        MemberSeedProperties properties = new MemberSeedProperties();
+        properties.setChunkSize(0);
+
+        assertThatThrownBy(() -> memberSeeder.seed(properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 나이 구간이 뒤집혀 있으면 적재 도중이 아니라 시작할 때 이유와 함께 거절한다.
+    @Test
+    void seedRejectsInvertedAgeRangeTest() {
+        MemberSeedProperties properties = new MemberSeedProperties();
+        properties.setMinAge(50);
+        properties.setMaxAge(10);
+
+        assertThat(properties.isAgeRangeValid()).isFalse();
+        assertThatThrownBy(() -> memberSeeder.seed(properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("min-age (50)");
+    }
+}
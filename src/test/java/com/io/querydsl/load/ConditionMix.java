@@ -0,0 +1,72 @@
+package com.io.querydsl.load;
+
+import com.io.querydsl.init.MemberSeeder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 부하 테스트 요청의 검색 조건 구성.
+ * "team:2,age:2,username:1,none:1" 처럼 조건 종류별 가중치로 지정하고, 가중치 비율대로 조건을 뽑는다.
+ */
+class ConditionMix {
+
+    enum Kind {
+        NONE,     // 조건 없음
+        TEAM,     // teamName
+        AGE,      // ageGoe ~ ageLoe (10살 구간)
+        USERNAME, // username 정확히 일치
+        PREFIX,   // username 앞부분 일치
+        TEAM_AGE  // teamName + ageGoe ~ ageLoe
+    }
+
+    private final String spec;
+    private final List<Kind> weighted = new ArrayList<>();
+    private final long members;
+    private final int teamCount;
+    private final int maxAge;
+
+    ConditionMix(String spec, long members, int teamCount, int maxAge) {
+        this.spec = spec;
+        this.members = members;
+        this.teamCount = teamCount;
+        this.maxAge = maxAge;
+        for (String entry : spec.split(",")) {
+            String[] kindAndWeight = entry.trim().split(":");
+            Kind kind = Kind.valueOf(kindAndWeight[0].trim().toUpperCase());
+            int weight = kindAndWeight.length > 1 ? Integer.parseInt(kindAndWeight[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                weighted.add(kind);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("condition mix has no weight: " + spec);
+        }
+    }
+
+    String spec() {
+        return spec;
+    }
+
+    // 쿼리 스트링 (앞의 '?' 제외)
+    String next(SplittableRandom random) {
+        return switch (weighted.get(random.nextInt(weighted.size()))) {
+            case NONE -> "";
+            case TEAM -> team(random);
+            case AGE -> age(random);
+            case USERNAME -> "username=member" + random.nextLong(members);
+            case PREFIX -> "usernameMatch=PREFIX&username=member" + random.nextLong(Math.max(1, members / 100));
+            case TEAM_AGE -> team(random) + "&" + age(random);
+        };
+    }
+
+    private String team(SplittableRandom random) {
+        return "teamName=" + MemberSeeder.teamName(random.nextInt(teamCount));
+    }
+
+    private String age(SplittableRandom random) {
+        int ageGoe = random.nextInt(maxAge + 1);
+        return "ageGoe=" + ageGoe + "&ageLoe=" + (ageGoe + 9);
+    }
+}
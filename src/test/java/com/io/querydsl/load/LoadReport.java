@@ -0,0 +1,28 @@
+package com.io.querydsl.load;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 부하 테스트 결과. JSON 으로 저장해 변경 전후를 비교한다.
+ * 지연 시간은 밀리초, 처리량은 초당 성공 요청 수다.
+ * 입장 제어가 거절한 요청(503)은 오류가 아니라 rejected 로 따로 센다.
+ */
+record LoadReport(Instant startedAt,
+                  long members,
+                  int concurrency,
+                  String warmup,
+                  String duration,
+                  String conditionMix,
+                  boolean admission,
+                  boolean searchCache,
+                  boolean coalescing,
+                  List<EndpointResult> endpoints) {
+
+    record EndpointResult(String endpoint, long requests, long rejected, long errors, double throughput,
+                          Latency latencyMillis) {
+    }
+
+    record Latency(double p50, double p95, double p99, double max) {
+    }
+}
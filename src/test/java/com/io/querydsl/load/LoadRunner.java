@@ -0,0 +1,157 @@
+package com.io.querydsl.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 닫힌 루프 부하 발생기.
+ * concurrency 개의 가상 스레드가 각자 응답을 받은 즉시 다음 요청을 보내며, 응답 본문을 끝까지 읽은 시간까지를 지연 시간으로 잰다.
+ * 지연 시간은 워커별 배열에 모았다가 끝난 뒤 합쳐 정렬하므로 측정 중에는 공유 자원이 없다.
+ */
+class LoadRunner {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final ConditionMix mix;
+    private final int concurrency;
+
+    LoadRunner(String baseUrl, ConditionMix mix, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.concurrency = concurrency;
+    }
+
+    // paged 면 page 파라미터(0~4)를 붙인다. (size 는 기본값 20)
+    LoadReport.EndpointResult run(String path, boolean paged, Duration warmup, Duration duration) throws Exception {
+        drive(path, paged, warmup);
+        long startedAt = System.nanoTime();
+        List<Worker> workers = drive(path, paged, duration);
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        int total = workers.stream().mapToInt(worker -> worker.size).sum();
+        long[] latencies = new long[total];
+        long rejected = 0;
+        long errors = 0;
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.size);
+            offset += worker.size;
+            rejected += worker.rejected;
+            errors += worker.errors;
+        }
+        Arrays.sort(latencies);
+
+        return new LoadReport.EndpointResult(
+                path,
+                total,
+                rejected,
+                errors,
+                total / elapsedSeconds,
+                new LoadReport.Latency(
+                        percentile(latencies, 0.50),
+                        percentile(latencies, 0.95),
+                        percentile(latencies, 0.99),
+                        total == 0 ? 0 : latencies[total - 1] / 1e6));
+    }
+
+    private List<Worker> drive(String path, boolean paged, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Worker> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(path, paged, deadline, new SplittableRandom(i));
+                workers.add(worker);
+                futures.add(executor.submit(() -> {
+                    worker.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return workers;
+    }
+
+    // 백분위 지연 시간 (밀리초, nearest-rank)
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private class Worker {
+
+        private final String path;
+        private final boolean paged;
+        private final long deadline;
+        private final SplittableRandom random;
+        private long[] latencies = new long[1024];
+        private int size;
+        private long rejected;
+        private long errors;
+
+        Worker(String path, boolean paged, long deadline, SplittableRandom random) {
+            this.path = path;
+            this.paged = paged;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        void run() throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                String query = mix.next(random);
+                if (paged) {
+                    query = query.isEmpty() ? "page=" + random.nextInt(5) : query + "&page=" + random.nextInt(5);
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path + (query.isEmpty() ? "" : "?" + query)))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET()
+                        .build();
+
+                long startedAt = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 503) {
+                        rejected++;
+                        continue;
+                    }
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                }
+                record(System.nanoTime() - startedAt);
+            }
+        }
+
+        private void record(long latencyNanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+    }
+}
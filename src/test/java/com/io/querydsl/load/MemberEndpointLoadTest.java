@@ -0,0 +1,122 @@
+package com.io.querydsl.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.io.querydsl.init.MemberSeedProperties;
+import com.io.querydsl.init.MemberSeeder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 검색 엔드포인트 부하 테스트. 일반 test 태스크에서는 빠지고 loadTest 태스크로만 실행한다.
+ * 인메모리 H2 로 앱을 임의 포트에 띄우고 회원을 적재한 뒤 /members/v1, v2, v3, v5 를 차례로 호출한다.
+ *
+ * ./gradlew loadTest -Pload.members=100000 -Pload.concurrency=32 -Pload.duration=30s -Pload.mix=team:1,age:1
+ * 입장 제어, 검색 결과 캐시, 같은 검색 합치기는 -Pload.admission=false -Pload.search-cache=false -Pload.coalescing=false 로 끈다.
+ * (캐시를 켜 두면 조건 조합이 적을 때 DB 대신 캐시를 재게 된다)
+ * 결과는 load.report (기본 build/reports/load/results.json) 에 JSON 으로 남는다.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=warn",
+})
+class MemberEndpointLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberEndpointLoadTest.class);
+    private static final long MEMBERS = Long.getLong("load.members", 10_000);
+    private static final int TEAM_COUNT = Integer.getInteger("load.teams", 10);
+    private static final int MAX_AGE = 99;
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final Duration WARMUP = duration("load.warmup", "5s");
+    private static final Duration DURATION = duration("load.duration", "20s");
+    private static final String MIX = System.getProperty("load.mix", "none:1,team:2,age:2,username:1,prefix:1,team_age:2");
+    private static final boolean ADMISSION = Boolean.parseBoolean(System.getProperty("load.admission", "true"));
+    private static final boolean SEARCH_CACHE = Boolean.parseBoolean(System.getProperty("load.search-cache", "true"));
+    private static final boolean COALESCING = Boolean.parseBoolean(System.getProperty("load.coalescing", "true"));
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "build/reports/load/results.json"));
+
+    @LocalServerPort int port;
+    @Autowired MemberSeeder memberSeeder;
+
+    private final Instant startedAt = Instant.now();
+    private final List<LoadReport.EndpointResult> results = new ArrayList<>();
+    private LoadRunner runner;
+
+    @DynamicPropertySource
+    static void executionProperties(DynamicPropertyRegistry registry) {
+        registry.add("member.execution.admission.enabled", () -> ADMISSION);
+        registry.add("member.search-cache.enabled", () -> SEARCH_CACHE);
+        registry.add("member.search-cache.coalescing", () -> COALESCING);
+    }
+
+    @BeforeAll
+    void seed() {
+        MemberSeedProperties properties = new MemberSeedProperties();
+        properties.setCount(MEMBERS);
+        properties.setTeamCount(TEAM_COUNT);
+        properties.setMaxAge(MAX_AGE);
+        properties.setAgeDistribution(MemberSeedProperties.AgeDistribution.UNIFORM);
+        memberSeeder.seed(properties);
+
+        runner = new LoadRunner("http://localhost:" + port,
+                new ConditionMix(MIX, MEMBERS, TEAM_COUNT, MAX_AGE), CONCURRENCY);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/members/v1, false",
+            "/members/v2, true",
+            "/members/v3, true",
+            "/members/v5, true",
+    })
+    void endpointLoadTest(String path, boolean paged) throws Exception {
+        LoadReport.EndpointResult result = runner.run(path, paged, WARMUP, DURATION);
+        results.add(result);
+        log.info("{}", result);
+
+        // 입장 제어가 거절한 요청은 과부하 보호가 동작한 것이므로 오류로 보지 않는다. (건수는 보고서에 남는다)
+        assertThat(result.requests()).isPositive();
+        assertThat(result.errors()).isZero();
+    }
+
+    @AfterAll
+    void writeReport() throws Exception {
+        LoadReport report = new LoadReport(startedAt, MEMBERS, CONCURRENCY,
+                WARMUP.toString(), DURATION.toString(), MIX, ADMISSION, SEARCH_CACHE, COALESCING, results);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValue(REPORT.toFile(), report);
+        log.info("load test report written to {}", REPORT.toAbsolutePath());
+    }
+
+    private static Duration duration(String key, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(key, defaultValue));
+    }
+}
@@ -0,0 +1,25 @@
+package com.io.querydsl.metrics;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * 테스트 전용 StatementInspector. 문장 수를 세면서 현재 스레드에서 마지막으로 준비된 SQL 을 기억한다. (실행 계획 확인용)
+ * 테스트 클래스패스에만 있으므로 운영 경로에서는 SQL 을 보관하지 않는다.
+ */
+@Primary
+@Component
+public class LastSqlRecorder extends SqlStatementCounter {
+
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        LAST_SQL.set(sql);
+        return super.inspect(sql);
+    }
+
+    public String lastSql() {
+        return LAST_SQL.get();
+    }
+}
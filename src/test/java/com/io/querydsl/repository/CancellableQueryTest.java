@@ -0,0 +1,66 @@
+package com.io.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CancellableQueryTest {
+
+    // 1e10 행을 훑는 쿼리 - 취소하지 않으면 테스트 시간 안에 끝나지 않는다.
+    private static final String SLOW_QUERY =
+            "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b where a.x + b.x < 0";
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    // 다른 스레드에서 실행 중인 JDBC 문장을 취소한다.
+    @Test
+    void cancelRunningStatement() throws Exception {
+        CancellableQuery query = new CancellableQuery();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                query.run(em, () -> em.createNativeQuery(SLOW_QUERY).getSingleResult())));
+
+        Thread.sleep(300);
+        long cancelledAt = System.nanoTime();
+        query.cancel();
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - cancelledAt)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    // 시작 전에 취소됐으면 쿼리를 실행하지 않는다.
+    @Test
+    void cancelBeforeStart() {
+        CancellableQuery query = new CancellableQuery();
+        query.cancel();
+
+        assertThatThrownBy(() -> query.run(em, () -> {
+            throw new AssertionError("query must not run");
+        })).isInstanceOf(CancellationException.class);
+    }
+
+    // 확인 뒤, 문장을 준비하기 전에 취소되면 취소할 문장이 없으므로 결과를 버리고 취소로 끝낸다.
+    @Test
+    void cancelBeforeStatementIsPrepared() {
+        CancellableQuery query = new CancellableQuery();
+
+        assertThatThrownBy(() -> query.run(em, () -> {
+            query.cancel();
+            return 1;
+        })).isInstanceOf(CancellationException.class);
+    }
+}
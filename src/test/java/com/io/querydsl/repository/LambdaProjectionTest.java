@@ -0,0 +1,74 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.dto.MemberDto;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.dto.QMemberTeamDto;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static com.io.querydsl.persistence.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class LambdaProjectionTest {
+
+    @Autowired EntityManager em;
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void before() {
+        queryFactory = new JPAQueryFactory(em);
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member(1L, "memberA", 10, teamA));
+        em.persist(new Member(2L, "memberB", 20, teamA));
+        em.persist(new Member(3L, "memberC", 30, null));
+        em.flush();
+        em.clear();
+    }
+
+    // @QueryProjection 으로 생성된 Q 타입과 같은 결과여야 한다. (left join 으로 팀이 없는 회원 포함)
+    @Test
+    void sameResultAsQueryProjection() {
+        List<MemberTeamDto> lambda = queryFactory
+                .select(LambdaProjection.of(MemberTeamDto.class, MemberTeamDto::new,
+                        member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .orderBy(member.id.asc())
+                .fetch();
+        List<MemberTeamDto> generated = queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(lambda).hasSize(3).isEqualTo(generated);
+        assertThat(lambda.get(2).getTeamName()).isNull();
+    }
+
+    @Test
+    void twoArgumentProjection() {
+        List<MemberDto> result = queryFactory
+                .select(LambdaProjection.of(MemberDto.class, MemberDto::new, member.username, member.age))
+                .from(member)
+                .orderBy(member.username.asc())
+                .fetch();
+
+        assertThat(result).extracting("username").containsExactly("memberA", "memberB", "memberC");
+        assertThat(result).extracting("age").containsExactly(10, 20, 30);
+    }
+}
@@ -1,18 +1,31 @@
 package com.io.querydsl.repository;
 
 import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CacheStatsDto;
 import com.io.querydsl.dto.MemberTeamDto;
 import com.io.querydsl.persistence.Member;
 import com.io.querydsl.persistence.Team;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -22,6 +35,7 @@ class MemberJpaRepositoryTest {
 
     @Autowired EntityManager em;
     @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberSearchQueryCache memberSearchQueryCache;
     JPAQueryFactory queryFactory;
 
 
@@ -84,4 +98,162 @@ class MemberJpaRepositoryTest {
         assertThat(members).extracting("username").containsExactly("memberD");
     }
 
-}
\ No newline at end of file
+    // 조건 형태별 쿼리 템플릿 캐시
+    @Test
+    void searchTemplateCacheTest() {
+        MemberSearchCondition teamB = new MemberSearchCondition();
+        teamB.setTeamName("teamB");
+        teamB.setAgeGoe(35);
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+        teamA.setAgeGoe(0);
+
+        CacheStatsDto before = memberSearchQueryCache.stats();
+        List<MemberTeamDto> resultB = memberJpaRepository.search2(teamB);
+        List<MemberTeamDto> resultA = memberJpaRepository.search2(teamA);
+        CacheStatsDto after = memberSearchQueryCache.stats();
+
+        assertThat(resultB).extracting("username").containsExactly("memberD");
+        assertThat(resultA).extracting("username").containsExactly("memberA", "memberB");
+        assertThat(after.getHits() + after.getMisses() - before.getHits() - before.getMisses()).isEqualTo(2);
+        assertThat(after.getHits()).isGreaterThan(before.getHits());
+    }
+
+    // 같은 shape 로 동시에 처음 들어온 요청들도 템플릿은 한 번만 만들어지므로 miss 는 최대 1번만 센다.
+    @Test
+    void searchTemplateCacheConcurrentMissTest() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member");
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(40);
+        int callers = 8;
+
+        CacheStatsDto before = memberSearchQueryCache.stats();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<List<MemberTeamDto>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return memberJpaRepository.search2(condition);
+                }));
+            }
+            start.countDown();
+            for (Future<List<MemberTeamDto>> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+        CacheStatsDto after = memberSearchQueryCache.stats();
+
+        assertThat(after.getHits() + after.getMisses() - before.getHits() - before.getMisses()).isEqualTo(callers);
+        assertThat(after.getMisses() - before.getMisses()).isLessThanOrEqualTo(1);
+    }
+
+    // 스트리밍 조회
+    @Test
+    void searchStreamTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        List<MemberTeamDto> result;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, 2)) {
+            result = stream.toList();
+        }
+
+        assertThat(result).extracting("username").containsExactly("memberB", "memberC", "memberD");
+        assertThat(result).extracting("teamName").containsExactly("teamA", "teamB", "teamB");
+    }
+
+    // 팀 수가 늘어도 엔티티 검색의 쿼리 수는 일정해야 한다. (N+1 방지)
+    // 팀 10 개(회원 30 명)와 40 개(회원 120 명)에서 실행한 SQL 수를 비교한다.
+    @ParameterizedTest
+    @EnumSource(MemberFetchPlan.class)
+    void search3FetchPlanTest(MemberFetchPlan fetchPlan) {
+        persistTeams(0, 10);
+        long smallStatements = search3Statements(fetchPlan, 10);
+
+        persistTeams(10, 40);
+        long largeStatements = search3Statements(fetchPlan, 40);
+
+        long expected = fetchPlan == MemberFetchPlan.LAZY ? 3 : 2;
+        assertThat(smallStatements).isEqualTo(expected);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    private void persistTeams(int from, int to) {
+        for (int t = from; t < to; t++) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            for (int m = 0; m < 3; m++) {
+                long id = 100L + t * 3 + m;
+                em.persist(new Member(id, "member" + id, 50, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private long search3Statements(MemberFetchPlan fetchPlan, int teams) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(50);
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Member> members = memberJpaRepository.search3(condition, fetchPlan);
+        long teamMembers = 0;
+        for (Member member : members) {
+            assertThat(member.getTeam().getName()).startsWith("team");
+        }
+        for (Member member : members) {
+            teamMembers += member.getTeam().getMembers().size();
+        }
+
+        assertThat(members).hasSize(teams * 3);
+        assertThat(teamMembers).isEqualTo(teams * 9L);
+        long statements = statistics.getPrepareStatementCount();
+        em.clear();
+        return statements;
+    }
+
+    // 쓰기 트랜잭션에 참여한 검색은 먼저 변경 내용을 flush 하므로 바뀐 값으로 찾는다.
+    @Test
+    void searchSeesPendingChangesTest() {
+        Member memberA = em.find(Member.class, 1L);
+        memberA.setUsername("renamed");
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MemberSearchCondition oldName = new MemberSearchCondition();
+        oldName.setUsername("memberA");
+        MemberSearchCondition newName = new MemberSearchCondition();
+        newName.setUsername("renamed");
+
+        assertThat(memberJpaRepository.search1(oldName)).isEmpty();
+        assertThat(memberJpaRepository.search2(oldName)).isEmpty();
+        assertThat(memberJpaRepository.search2(newName)).extracting("memberId").containsExactly(1L);
+        assertThat(statistics.getFlushCount()).isPositive();
+    }
+
+    // StatelessSession 조회는 영속성 컨텍스트에 엔티티를 남기지 않는다.
+    // 이미 엔티티를 담고 있는 컨텍스트에서 조회해도 엔티티 수가 그대로인지 본다.
+    @Test
+    void search3StatelessTest() {
+        em.find(Member.class, 2L);
+        em.find(Member.class, 3L);
+        int entitiesBefore = em.unwrap(Session.class).getStatistics().getEntityCount();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        List<Member> members = memberJpaRepository.search3Stateless(condition);
+
+        assertThat(members).extracting("username").containsExactly("memberB", "memberC", "memberD");
+        assertThat(members).extracting(member -> member.getTeam().getName()).containsExactly("teamA", "teamB", "teamB");
+        assertThat(entitiesBefore).isEqualTo(2);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(entitiesBefore);
+        assertThat(members).noneMatch(em::contains);
+    }
+}
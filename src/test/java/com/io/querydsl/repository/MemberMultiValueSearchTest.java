@@ -0,0 +1,96 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.metrics.LastSqlRecorder;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberMultiValueSearchTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LastSqlRecorder statementCounter;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member(1L, "memberA", 10, teamA));
+        em.persist(new Member(2L, "memberB", 20, teamB));
+        em.persist(new Member(3L, "memberC", 30, teamC));
+        em.persist(new Member(4L, "memberD", 40, null));
+        em.flush();
+        em.clear();
+    }
+
+    // 쿼리 템플릿(searchMember)과 동적 쿼리(searchMemberPagingComplex) 모두 같은 결과여야 한다.
+    @Test
+    void teamNamesAndMemberIdsTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamNames(List.of("teamA", "teamC"));
+
+        assertThat(memberRepository.searchMember(condition))
+                .extracting("username").containsExactlyInAnyOrder("memberA", "memberC");
+        assertThat(memberRepository.searchMemberPagingComplex(condition, PageRequest.of(0, 10)).getContent())
+                .extracting("username").containsExactlyInAnyOrder("memberA", "memberC");
+
+        condition.setMemberIds(List.of(2L, 3L, 4L));
+
+        assertThat(memberRepository.searchMember(condition))
+                .extracting("username").containsExactly("memberC");
+        assertThat(memberRepository.searchMemberPagingComplex(condition, PageRequest.of(0, 10)).getContent())
+                .extracting("username").containsExactly("memberC");
+    }
+
+    // 목록 길이가 달라도 패딩된 파라미터 수가 같으면 같은 SQL 이 된다.
+    @Test
+    void inClausePaddingTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberIds(List.of(1L, 2L, 3L));
+
+        memberRepository.searchMember(condition);
+        String threeIds = statementCounter.lastSql();
+
+        condition.setMemberIds(List.of(1L, 2L, 3L, 4L));
+        memberRepository.searchMember(condition);
+
+        assertThat(statementCounter.lastSql()).isEqualTo(threeIds);
+        assertThat(threeIds.chars().filter(c -> c == '?').count()).isEqualTo(4);
+    }
+
+    // 최대 in 크기를 넘는 목록은 나눠 조회해 합친다.
+    @Test
+    void largeMemberIdsTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setMemberIds(LongStream.rangeClosed(1, 2500).boxed().toList());
+
+        long before = statementCounter.current();
+        List<MemberTeamDto> result = memberRepository.searchMember(condition);
+
+        assertThat(statementCounter.current() - before).isEqualTo(3);
+        assertThat(result).extracting("username")
+                .containsExactlyInAnyOrder("memberA", "memberB", "memberC", "memberD");
+        assertThat(memberRepository.searchMemberPagingComplex(condition, PageRequest.of(0, 10)).getContent())
+                .hasSize(4);
+    }
+}
@@ -0,0 +1,96 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 동시 페이징은 별도 트랜잭션에서 조회하므로 테스트 데이터를 커밋하고 정리한다.
+@SpringBootTest
+class MemberRepositoryConcurrentPagingTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("concurrentTeam");
+            em.persist(team);
+            for (long id = 9101; id <= 9105; id++) {
+                em.persist(new Member(id, "member" + id, (int) (id - 9100) * 10, team));
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = em.find(Member.class, 9101L).getTeam();
+            new JPAQueryFactory(em)
+                    .delete(member)
+                    .where(member.id.between(9101L, 9105L))
+                    .execute();
+            em.remove(team);
+        });
+    }
+
+    // 동시 페이징
+    @Test
+    void searchPagingConcurrentTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("concurrentTeam");
+
+        Page<MemberTeamDto> firstPage = memberRepository.searchMemberPagingConcurrent(condition, PageRequest.of(0, 2));
+        Page<MemberTeamDto> lastPage = memberRepository.searchMemberPagingConcurrent(condition, PageRequest.of(2, 2));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(5);
+        assertThat(firstPage.getContent())
+                .extracting("username")
+                .containsExactly("member9101", "member9102");
+        assertThat(lastPage.getTotalElements()).isEqualTo(5);
+        assertThat(lastPage.getContent())
+                .extracting("username")
+                .containsExactly("member9105");
+    }
+
+    // 작업 스레드에서 실행한 컨텐츠/카운트 쿼리도 호출한 메서드의 SQL 수로 센다.
+    @Test
+    void searchPagingConcurrentStatementsTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("concurrentTeam");
+        double before = statements();
+
+        memberRepository.searchMemberPagingConcurrent(condition, PageRequest.of(0, 2));
+
+        assertThat(statements() - before).isEqualTo(2);
+    }
+
+    private double statements() {
+        DistributionSummary summary = meterRegistry.find("member.search.statements")
+                .tag("method", "searchMemberPagingConcurrent")
+                .tag("shape", "teamName")
+                .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+}
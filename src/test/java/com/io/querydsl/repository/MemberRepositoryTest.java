@@ -1,17 +1,25 @@
 package com.io.querydsl.repository;
 
+import com.io.querydsl.domain.MemberCursor;
 import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.CursorSlice;
 import com.io.querydsl.dto.MemberTeamDto;
 import com.io.querydsl.persistence.Member;
 import com.io.querydsl.persistence.Team;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -24,6 +32,7 @@ class MemberRepositoryTest {
 
     @Autowired EntityManager em;
     @Autowired MemberRepository memberRepository;
+    @Autowired MeterRegistry meterRegistry;
     JPAQueryFactory queryFactory;
 
     @Test
@@ -92,4 +101,115 @@ class MemberRepositoryTest {
                 .containsExactly("memberA", "memberB", "memberC");
     }
 
+    // 복잡 페이징 - 마지막 페이지는 count 쿼리 없이 전체 개수를 계산한다.
+    // 전체 개수는 count 쿼리를 실행해도 같으므로, 실행된 SQL 이 컨텐츠 쿼리 하나뿐인지 본다.
+    @Test
+    void searchPagingComplexLastPageTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<MemberTeamDto> result = memberRepository.searchMemberPagingComplex(condition, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent())
+                .extracting("username")
+                .containsExactly("memberC", "memberD");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Page<MemberTeamDto> lastPage = memberRepository.searchMemberPagingComplex(new MemberSearchCondition(), PageRequest.of(1, 3));
+
+        assertThat(lastPage.getTotalElements()).isEqualTo(4);
+        assertThat(lastPage.getContent())
+                .extracting("username")
+                .containsExactly("memberD");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // 가득 찬 첫 페이지는 전체 개수를 알 수 없으므로 count 쿼리를 실행한다.
+        statistics.clear();
+        memberRepository.searchMemberPagingComplex(new MemberSearchCondition(), PageRequest.of(0, 3));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // 슬라이스 - count 쿼리 없이 한 행을 더 읽어 다음 페이지 여부를 판단한다.
+    @Test
+    void searchSliceTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        double statementsBefore = statements("searchMemberSlice", "none");
+
+        Slice<MemberTeamDto> first = memberRepository.searchMemberSlice(condition, PageRequest.of(0, 3));
+        Slice<MemberTeamDto> last = memberRepository.searchMemberSlice(condition, PageRequest.of(1, 3));
+
+        assertThat(first.getContent()).extracting("username").containsExactly("memberA", "memberB", "memberC");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("memberD");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(statements("searchMemberSlice", "none") - statementsBefore).isEqualTo(2);
+    }
+
+    // 커서 페이징
+    @Test
+    void searchByCursorTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+
+        CursorSlice<MemberTeamDto> first = memberRepository.searchMemberByCursor(condition, null, 2);
+
+        assertThat(first.getContent())
+                .extracting("username")
+                .containsExactly("memberB", "memberC");
+        assertThat(first.isHasNext()).isTrue();
+
+        MemberCursor cursor = MemberCursor.valueOf(first.getNextCursor());
+        CursorSlice<MemberTeamDto> second = memberRepository.searchMemberByCursor(condition, cursor, 2);
+
+        assertThat(second.getContent())
+                .extracting("username")
+                .containsExactly("memberD");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    // 검색 메서드별, 조건 형태별 메트릭
+    @Test
+    void searchMetricsTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeLoe(30);
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        long callsBefore = calls("searchMemberPagingSimple", "teamName+ageLoe");
+        double rowsBefore = rows("searchMemberPagingSimple", "teamName+ageLoe");
+        double statementsBefore = statements("searchMemberPagingSimple", "teamName+ageLoe");
+
+        memberRepository.searchMemberPagingSimple(condition, pageRequest);
+
+        Timer timer = meterRegistry.get("member.search")
+                .tag("method", "searchMemberPagingSimple")
+                .tag("shape", "teamName+ageLoe")
+                .timer();
+        assertThat(timer.count() - callsBefore).isEqualTo(1);
+        assertThat(rows("searchMemberPagingSimple", "teamName+ageLoe") - rowsBefore).isEqualTo(2);
+        assertThat(statements("searchMemberPagingSimple", "teamName+ageLoe") - statementsBefore).isEqualTo(2);
+    }
+
+    // 컨텍스트(레지스트리)를 다른 테스트와 같이 쓰므로 메서드와 조건 형태로 미터를 고르고 호출 전후의 차이를 본다.
+    private long calls(String method, String shape) {
+        Timer timer = meterRegistry.find("member.search").tag("method", method).tag("shape", shape).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double rows(String method, String shape) {
+        DistributionSummary summary = meterRegistry.find("member.search.rows").tag("method", method).tag("shape", shape).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private double statements(String method, String shape) {
+        DistributionSummary summary = meterRegistry.find("member.search.statements").tag("method", method).tag("shape", shape).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.domain.UsernameMatch;
+import com.io.querydsl.metrics.LastSqlRecorder;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberSearchPlanTest {
+
+    // H2 EXPLAIN 의 "/* PUBLIC.인덱스명[: 조건] */" 주석
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_]+)(:[^*]*)?\\*/");
+    private static final int SEED_TEAMS = 20;
+    private static final int SEED_MEMBERS = 2_000;
+
+    @Autowired EntityManager em;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LastSqlRecorder lastSqlRecorder;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    // 행이 몇 개뿐이면 옵티마이저가 인덱스 대신 전체 탐색을 골라도 비용 차이가 없으므로,
+    // 팀 20 개에 회원 2,000 명을 더 넣어 조건마다 인덱스가 확실히 싸게 만든다.
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member(1L, "member1", 10, teamA));
+        em.persist(new Member(2L, "member2", 20, teamA));
+        em.persist(new Member(3L, "member3", 30, teamB));
+        em.persist(new Member(4L, "member4", 40, teamB));
+
+        List<Team> teams = new ArrayList<>();
+        for (int t = 0; t < SEED_TEAMS; t++) {
+            Team team = new Team("seedTeam" + t);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (long id = 1_000; id < 1_000 + SEED_MEMBERS; id++) {
+            Member seeded = new Member(id, "seed" + id, (int) (id % 100));
+            seeded.setTeam(teams.get((int) (id % SEED_TEAMS)));
+            em.persist(seeded);
+            if (id % 500 == 0) {
+                em.flush();
+                em.clear();
+                teams.replaceAll(team -> em.getReference(Team.class, team.getId()));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    // 조건 형태(비트: username, teamName, ageGoe, ageLoe)마다 실제 SQL 의 실행 계획을 확인한다.
+    // 조건이 하나도 없는 형태(0)는 전체 조회이므로 제외한다.
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15})
+    void searchPlanUsesIndexTest(int shape) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        List<Object> params = new ArrayList<>();
+        if ((shape & 1) != 0) {
+            condition.setUsername("member1");
+            params.add("member1");
+        }
+        if ((shape & 1 << 1) != 0) {
+            condition.setTeamName("teamA");
+            params.add("teamA");
+        }
+        if ((shape & 1 << 2) != 0) {
+            condition.setAgeGoe(10);
+            params.add(10);
+        }
+        if ((shape & 1 << 3) != 0) {
+            condition.setAgeLoe(30);
+            params.add(30);
+        }
+
+        memberJpaRepository.search2(condition);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + lastSqlRecorder.lastSql(), String.class, params.toArray());
+
+        assertIndexRangeScans(plan, condition.shapeTag());
+    }
+
+    // 복잡한 페이징의 컨텐츠 쿼리(teamName + age 범위)도 팀 이름 인덱스에서 시작해 (team_id, age) 인덱스로 찾는다.
+    // 페이지 크기보다 결과가 적어 count 쿼리를 생략하므로 마지막 SQL 이 컨텐츠 쿼리다.
+    @Test
+    void complexPagingContentPlanUsesIndexTest() {
+        memberRepository.searchMemberPagingComplex(teamAndAgeCondition(), PageRequest.of(0, 10));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + lastSqlRecorder.lastSql(), String.class,
+                "teamA", 10, 30, 10);
+
+        assertIndexRangeScans(plan, "complex content");
+    }
+
+    // 첫 페이지가 가득 차면 count 쿼리를 실행하므로 마지막 SQL 이 count 쿼리다.
+    @Test
+    void complexPagingCountPlanUsesIndexTest() {
+        memberRepository.searchMemberPagingComplex(teamAndAgeCondition(), PageRequest.of(0, 1));
+        String sql = lastSqlRecorder.lastSql();
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, "teamA", 10, 30);
+
+        assertThat(sql).startsWith("select count(");
+        assertIndexRangeScans(plan, "complex count");
+    }
+
+    private MemberSearchCondition teamAndAgeCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(30);
+        return condition;
+    }
+
+    // 테이블 전체 탐색도, 조건 없는 인덱스 전체 탐색도 없어야 한다.
+    private void assertIndexRangeScans(String plan, String label) {
+        assertThat(plan).doesNotContain("tableScan");
+        Matcher matcher = INDEX_COMMENT.matcher(plan);
+        List<String> fullIndexScans = new ArrayList<>();
+        while (matcher.find()) {
+            if (matcher.group(2) == null) {
+                fullIndexScans.add(matcher.group(1));
+            }
+        }
+        assertThat(fullIndexScans).as("%s plan:%n%s", label, plan).isEmpty();
+    }
+
+    // 앞부분 검색은 username 인덱스 범위 탐색, 부분 문자열 검색은 3-gram 색인에서 시작해야 한다.
+    @ParameterizedTest
+    @ValueSource(strings = {"PREFIX", "CONTAINS"})
+    void usernameMatchPlanUsesIndexTest(UsernameMatch match) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setUsernameMatch(match);
+
+        List<Object> params = new ArrayList<>();
+        if (match == UsernameMatch.PREFIX) {
+            params.add("member1");
+            params.add("member1" + Character.MAX_VALUE);
+        } else {
+            List<String> grams = new ArrayList<>(UsernamePredicates.searchGrams("member1"));
+            params.addAll(grams);
+            // in 절 파라미터 패딩: 2의 거듭제곱 개가 될 때까지 마지막 값을 반복한다.
+            for (int padded = Integer.highestOneBit(grams.size() - 1) << 1; params.size() < padded; ) {
+                params.add(grams.get(grams.size() - 1));
+            }
+            params.add((long) grams.size());
+            params.add("%member1%");
+        }
+
+        memberJpaRepository.search2(condition);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + lastSqlRecorder.lastSql(), String.class, params.toArray());
+
+        assertThat(plan).doesNotContain("tableScan");
+        String expectedIndex = match == UsernameMatch.PREFIX ? "IDX_MEMBER_USERNAME: USERNAME >= ?1" : "IDX_MEMBER_USERNAME_GRAM: GRAM IN(";
+        assertThat(plan).contains(expectedIndex);
+    }
+}
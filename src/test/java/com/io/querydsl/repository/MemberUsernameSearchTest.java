@@ -0,0 +1,91 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.domain.UsernameMatch;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberUsernameSearchTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberRepository memberRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        String[] usernames = {"alice", "alicia", "malice", "bob_smith", "bobXsmith", "100%real", "al"};
+        for (int i = 0; i < usernames.length; i++) {
+            em.persist(new Member(i + 1L, usernames[i], 20 + i, teamA));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    // 쿼리 템플릿(searchMember)과 동적 쿼리(searchMemberPagingComplex) 모두 같은 결과여야 한다.
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "EXACT    | alice | alice",
+            "PREFIX   | ali   | alice,alicia",
+            "PREFIX   | al    | al,alice,alicia",
+            "CONTAINS | lic   | alice,alicia,malice",
+            "CONTAINS | alice | alice,malice",
+            "CONTAINS | b_s   | bob_smith",
+            "CONTAINS | ob_smit | bob_smith",
+            "CONTAINS | 0%r   | 100%real",
+            "CONTAINS | li    | alice,alicia,malice",
+    })
+    void usernameMatchTest(UsernameMatch match, String username, String expected) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setUsernameMatch(match);
+
+        List<MemberTeamDto> templated = memberRepository.searchMember(condition);
+        List<MemberTeamDto> paged = memberRepository.searchMemberPagingComplex(condition, PageRequest.of(0, 10)).getContent();
+
+        assertThat(templated).extracting("username").containsExactlyInAnyOrder(expected.split(","));
+        assertThat(paged).extracting("username").containsExactlyInAnyOrder(expected.split(","));
+    }
+
+    // 긴 검색어도 검색어를 덮는 3-gram 몇 개만 in 목록에 넣는다.
+    @Test
+    void searchGramsTest() {
+        assertThat(UsernamePredicates.searchGrams("al")).isEmpty();
+        assertThat(UsernamePredicates.searchGrams("alicia")).containsExactly("ali", "cia");
+        assertThat(UsernamePredicates.searchGrams("ob_smit")).containsExactly("ob_", "smi", "mit");
+        assertThat(UsernamePredicates.searchGrams("abcdefghijklmnopqrstuvwxyz"))
+                .containsExactly("abc", "def", "ghi", "xyz");
+    }
+
+    // username 을 바꾸면 3-gram 색인도 바뀐다.
+    @Test
+    void usernameGramsFollowRenameTest() {
+        em.find(Member.class, 1L).setUsername("zelda");
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("eld");
+        condition.setUsernameMatch(UsernameMatch.CONTAINS);
+
+        assertThat(memberRepository.searchMember(condition)).extracting("username").containsExactly("zelda");
+        assertThat(em.find(Member.class, 1L).getUsernameGrams()).containsExactlyInAnyOrder("zel", "eld", "lda");
+    }
+}
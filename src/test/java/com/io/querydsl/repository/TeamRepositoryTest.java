@@ -0,0 +1,118 @@
+package com.io.querydsl.repository;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2차 캐시는 커밋된 데이터만 담으므로 이 테스트는 직접 커밋하고 정리한다.
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    TransactionTemplate transactionTemplate;
+    Statistics statistics;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("cachedTeam");
+            em.persist(team);
+            em.persist(new Member(9001L, "cachedMember", 30, team));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, 9001L);
+            Team team = member.getTeam();
+            em.remove(member);
+            em.remove(team);
+        });
+    }
+
+    // 지연 로딩된 팀은 2차 캐시에서 읽으므로 SQL 이 나가지 않는다.
+    @Test
+    void lazyTeamFromSecondLevelCache() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, 9001L);
+            statistics.clear();
+
+            assertThat(member.getTeam().getName()).isEqualTo("cachedTeam");
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        });
+    }
+
+    // 팀 이름 조회는 두 번째부터 쿼리 캐시에서 읽는다.
+    @Test
+    void findByNameFromQueryCache() {
+        teamRepository.findByName("cachedTeam");
+        statistics.clear();
+
+        Team team = teamRepository.findByName("cachedTeam").orElseThrow();
+
+        assertThat(team.getName()).isEqualTo("cachedTeam");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    // MemberSeeder 처럼 회원 쪽에서만 팀을 지정해도(setTeam) 캐시된 팀의 회원 컬렉션이 비워진다.
+    @Test
+    void membersCollectionEvictedWhenMemberJoins() {
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = em.find(Member.class, 9001L).getTeam();
+            assertThat(team.getMembers()).hasSize(1);
+            return team.getId();
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Member member = new Member(9002L, "joinedMember", 31);
+                member.setTeam(em.getReference(Team.class, teamId));
+                em.persist(member);
+            });
+
+            transactionTemplate.executeWithoutResult(status -> assertThat(em.find(Team.class, teamId).getMembers())
+                    .extracting("username")
+                    .containsExactlyInAnyOrder("cachedMember", "joinedMember"));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, 9002L)));
+        }
+    }
+
+    // 롤백된 트랜잭션이 읽은 커밋 전 값은 2차 캐시에 남지 않는다. (READ_WRITE 는 수정 중인 항목을 잠가 putFromLoad 를 막는다)
+    @Test
+    void rolledBackUpdateNotCached() {
+        Long teamId = transactionTemplate.execute(status -> em.find(Member.class, 9001L).getTeam().getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = em.find(Team.class, teamId);
+            team.setName("uncommittedTeam");
+            em.flush();
+            em.clear();
+            // 같은 트랜잭션에서 다시 읽으면 DB 의 커밋 전 값을 읽는다.
+            assertThat(em.find(Team.class, teamId).getName()).isEqualTo("uncommittedTeam");
+            status.setRollbackOnly();
+        });
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(em.find(Team.class, teamId).getName()).isEqualTo("cachedTeam"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 테스트 트랜잭션에 참여하므로 끝나면 롤백된다.
+@Transactional
+@SpringBootTest(properties = {"member.bulk.chunk-size=2", "member.bulk.pause=0"})
+class MemberBulkServiceTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberBulkService memberBulkService;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (long id = 1; id <= 5; id++) {
+            em.persist(new Member(id, "member" + id, (int) id * 10, id % 2 == 0 ? teamB : teamA));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    // 기본 키 구간 [1, 2], [3] 두 청크로 나눠 수정하고, 미리 읽어 둔 엔티티도 새 값을 보게 한다.
+    @Test
+    void bulkUpdateTest() {
+        Member member1 = em.find(Member.class, 1L);
+        List<MemberBulkService.Progress> progresses = new ArrayList<>();
+
+        long count = memberBulkService.update(
+                member.age.lt(31),
+                update -> update.set(member.username, "비회원"),
+                progresses::add);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(progresses).extracting(MemberBulkService.Progress::affectedRows).containsExactly(2L, 3L);
+        assertThat(progresses).extracting(MemberBulkService.Progress::lastId).containsExactly(2L, 3L);
+        assertThat(progresses).allMatch(progress -> progress.totalChunks() == 2);
+
+        assertThat(em.contains(member1)).isFalse();
+        assertThat(em.find(Member.class, 1L).getUsername()).isEqualTo("비회원");
+        assertThat(em.find(Member.class, 4L).getUsername()).isEqualTo("member4");
+        // 벌크 update 로 바뀐 username 의 3-gram 색인도 다시 만든다.
+        assertThat(em.find(Member.class, 1L).getUsernameGrams()).containsExactly("비회원");
+    }
+
+    @Test
+    void bulkDeleteTest() {
+        long count = memberBulkService.delete(member.age.goe(40));
+
+        List<Long> remaining = new JPAQueryFactory(em)
+                .select(member.id)
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(count).isEqualTo(2);
+        assertThat(remaining).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void bulkNoMatchTest() {
+        assertThat(memberBulkService.delete(member.age.gt(100))).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.domain.ExportFormat;
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 청크(7건)와 버퍼(64 byte)를 작게 잡아 청크 경계와 버퍼보다 긴 값을 함께 확인한다.
+// 내보내기는 트랜잭션 밖에서 청크마다 트랜잭션을 여닫으므로, 이 테스트도 트랜잭션 없이 실행하고 데이터를 직접 커밋하고 정리한다.
+@SpringBootTest(properties = {"member.export.chunk-size=7", "member.export.buffer-size=64"})
+class MemberExportServiceTest {
+
+    private static final int MEMBERS = 50;
+    private static final String LONG_NAME = "x".repeat(100);
+
+    @Autowired EntityManager em;
+    @Autowired MemberExportService memberExportService;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired PlatformTransactionManager transactionManager;
+    TransactionTemplate transactionTemplate;
+    List<Long> teamIds = new ArrayList<>();
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("exportTeamA");
+            Team teamB = new Team("exportTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (long id = 1; id <= MEMBERS; id++) {
+                em.persist(new Member(id, "member" + id, (int) id, id % 2 == 0 ? teamA : teamB));
+            }
+            em.persist(new Member(MEMBERS + 1L, "kim, \"jr\"", 20, null));
+            em.persist(new Member(MEMBERS + 2L, LONG_NAME, 30, teamA));
+            teamIds.add(teamA.getId());
+            teamIds.add(teamB.getId());
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long id = 1; id <= MEMBERS + 2; id++) {
+                Member member = em.find(Member.class, id);
+                if (member != null) {
+                    em.remove(member);
+                }
+            }
+            teamIds.forEach(teamId -> em.remove(em.find(Team.class, teamId)));
+        });
+    }
+
+    // 회원 id 순으로 청크씩 읽어 gzip CSV 로 쓴다. 청크마다 세션(트랜잭션)을 따로 연다.
+    @Test
+    void csvExportTest() throws IOException {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long sessionsBefore = statistics.getSessionOpenCount();
+
+        long rows = memberExportService.export(condition, ExportFormat.CSV, out);
+        long sessions = statistics.getSessionOpenCount() - sessionsBefore;
+
+        List<String> lines = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(MEMBERS + 2);
+        assertThat(lines).hasSize(MEMBERS + 3);
+        assertThat(lines.get(0)).isEqualTo("memberId,username,age,teamId,teamName");
+        assertThat(lines.get(1)).startsWith("1,member1,1,").endsWith(",exportTeamB");
+        assertThat(lines.get(MEMBERS + 1)).isEqualTo((MEMBERS + 1) + ",\"kim, \"\"jr\"\"\",20,,");
+        assertThat(lines.get(MEMBERS + 2)).startsWith((MEMBERS + 2) + "," + LONG_NAME + ",30,");
+        // 52 건 / 7 = 7 청크 + 마지막 3 건
+        assertThat(meterRegistry.get("member.search")
+                .tag("method", "searchChunk")
+                .tag("shape", condition.shapeTag())
+                .timer()
+                .count()).isEqualTo(8);
+        assertThat(sessions).isEqualTo(8);
+    }
+
+    // 열 단위 블록으로 쓰고 팀은 처음 나온 블록에서 한 번만 사전에 넣는다.
+    @Test
+    void columnarExportTest() throws IOException {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("exportTeamA");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = memberExportService.export(condition, ExportFormat.COLUMNAR, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(in.readNBytes(4)).isEqualTo(MemberExportWriter.Columnar.MAGIC);
+        assertThat(in.readByte()).isEqualTo(MemberExportWriter.Columnar.VERSION);
+
+        List<Long> memberIds = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        List<String> teamNames = new ArrayList<>();
+        int blocks = 0;
+        for (int size = in.readInt(); size > 0; size = in.readInt()) {
+            blocks++;
+            int newTeams = in.readInt();
+            for (int i = 0; i < newTeams; i++) {
+                in.readLong();
+                teamNames.add(readString(in));
+            }
+            for (int i = 0; i < size; i++) {
+                memberIds.add(in.readLong());
+            }
+            for (int i = 0; i < size; i++) {
+                in.readInt();
+            }
+            for (int i = 0; i < size; i++) {
+                assertThat(in.readInt()).isEqualTo(0);
+            }
+            for (int i = 0; i < size; i++) {
+                usernames.add(readString(in));
+            }
+        }
+
+        assertThat(rows).isEqualTo(MEMBERS / 2 + 1);
+        assertThat(blocks).isEqualTo(4);
+        assertThat(teamNames).containsExactly("exportTeamA");
+        assertThat(memberIds).isSorted().hasSize(MEMBERS / 2 + 1).endsWith(MEMBERS + 2L);
+        assertThat(usernames).startsWith("member2", "member4").endsWith(LONG_NAME);
+        assertThat(in.available()).isZero();
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+}
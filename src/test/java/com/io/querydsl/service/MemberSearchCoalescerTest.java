@@ -0,0 +1,196 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.config.QueryDeadline;
+import com.io.querydsl.domain.MemberSearchCondition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSearchCoalescerTest {
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20);
+
+    MemberSearchCacheProperties properties = new MemberSearchCacheProperties();
+    MemberSearchResultCache resultCache = new MemberSearchResultCache(properties);
+    MemberSearchCoalescer coalescer = new MemberSearchCoalescer(properties, resultCache);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        coalescer.bindTo(meterRegistry);
+    }
+
+    // 같은 검색이 동시에 들어오면 DB 조회는 한 번이고 모두 같은 결과를 받는다.
+    @Test
+    void coalesceIdenticalSearches() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<String>> leader = executor.submit(() -> search(condition(" teamA ")));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<List<String>>> followers = new ArrayList<>();
+            for (int i = 0; i < 9; i++) {
+                followers.add(executor.submit(() -> search(condition("teamA"))));
+            }
+            awaitCoalesced(9);
+            release.countDown();
+
+            List<String> result = leader.get();
+            for (Future<List<String>> follower : followers) {
+                assertThat(follower.get()).isSameAs(result);
+            }
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.get("member.search.coalescing").tag("outcome", "executed").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("member.search.coalescing.ratio").gauge().value()).isEqualTo(0.9);
+    }
+
+    // 진행 중인 조회가 시작된 뒤 무효화가 있었으면 합류하지 않고 따로 조회하며, 이후 요청은 그 새 조회에 합류한다.
+    @Test
+    void doNotJoinStaleFlight() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<String>> leader = executor.submit(() -> search(condition("teamA")));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            resultCache.invalidateAll();
+            Future<List<String>> second = executor.submit(() -> search(condition("teamA")));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executions.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(executions).hasValue(2);
+
+            Future<List<String>> third = executor.submit(() -> search(condition("teamA")));
+            awaitCoalesced(1);
+
+            release.countDown();
+            assertThat(second.get()).isNotSameAs(leader.get());
+            assertThat(third.get()).isSameAs(second.get());
+        }
+        assertThat(executions).hasValue(2);
+    }
+
+    // 먼저 온 요청이 실패하면 기다리던 요청도 같은 예외를 받는다.
+    @Test
+    void followersReceiveLeaderFailure() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> coalescer.execute("list", condition("teamA"), PAGEABLE, () -> {
+                entered.countDown();
+                awaitQuietly(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            Future<List<String>> follower = executor.submit(() -> search(condition("teamA")));
+            awaitCoalesced(1);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasRootCauseMessage("boom");
+            assertThatThrownBy(follower::get).hasRootCauseMessage("boom");
+        }
+        assertThat(executions).hasValue(0);
+    }
+
+    // 먼저 온 요청이 자기 시간 예산을 다 써서 실패하면 기다리던 요청은 자기 예산으로 직접 조회한다.
+    @Test
+    void followersRunOwnQueryWhenLeaderDeadlineExpires() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> withDeadline(Duration.ofNanos(1), () ->
+                    coalescer.execute("list", condition("teamA"), PAGEABLE, () -> {
+                        entered.countDown();
+                        awaitQuietly(release);
+                        // 리포지토리가 쿼리 직전에 남은 예산을 확인하는 것과 같다.
+                        return QueryDeadline.cap(Duration.ofSeconds(1));
+                    })));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            Future<List<String>> follower = executor.submit(() ->
+                    withDeadline(Duration.ofSeconds(5), () -> search(condition("teamA"))));
+            awaitCoalesced(1);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(QueryTimeoutException.class);
+            assertThat(follower.get()).containsExactly("member1");
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.get("member.search.coalescing").tag("outcome", "executed").functionCounter().count()).isEqualTo(2);
+    }
+
+    // 기다리는 요청은 자기 시간 예산까지만 기다린다.
+    @Test
+    void followersWaitOnlyForTheirOwnBudget() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<String>> leader = executor.submit(() -> search(condition("teamA")));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            Future<List<String>> follower = executor.submit(() ->
+                    withDeadline(Duration.ofMillis(50), () -> search(condition("teamA"))));
+
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(QueryTimeoutException.class);
+            release.countDown();
+            assertThat(leader.get()).containsExactly("member1");
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    private static <T> T withDeadline(Duration budget, Supplier<T> search) {
+        QueryDeadline.bind(new QueryDeadline("/members/v2", budget));
+        try {
+            return search.get();
+        } finally {
+            QueryDeadline.clear();
+        }
+    }
+
+    private List<String> search(MemberSearchCondition condition) {
+        return coalescer.execute("list", condition.normalized(), PAGEABLE, () -> {
+            executions.incrementAndGet();
+            entered.countDown();
+            awaitQuietly(release);
+            return List.of("member1");
+        });
+    }
+
+    private MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition.normalized();
+    }
+
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("member.search.coalescing").tag("outcome", "coalesced").functionCounter().count() < count
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.domain.MemberSearchCondition;
+import com.io.querydsl.dto.MemberTeamDto;
+import com.io.querydsl.metrics.SqlStatementCounter;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.io.querydsl.persistence.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberSearchServiceTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberSearchService memberSearchService;
+    @Autowired MemberSearchResultCache memberSearchResultCache;
+    @Autowired MemberBulkService memberBulkService;
+    @Autowired SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member(1L, "member1", 10, teamA));
+        em.persist(new Member(2L, "member2", 20, teamA));
+        em.persist(new Member(3L, "member3", 30, teamB));
+        em.persist(new Member(4L, "member4", 40, teamB));
+        em.flush();
+        em.clear();
+        memberSearchResultCache.invalidateAll();
+    }
+
+    // 정규화된 조건이 같으면 두 번째 검색은 DB 에 가지 않는다.
+    @Test
+    void searchCacheHitTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        MemberSearchCondition padded = new MemberSearchCondition();
+        padded.setTeamName(" teamA ");
+        padded.setUsername("");
+
+        List<MemberTeamDto> first = memberSearchService.search(condition);
+        long statementsBefore = sqlStatementCounter.current();
+        List<MemberTeamDto> second = memberSearchService.search(padded);
+
+        assertThat(second).isSameAs(first);
+        assertThat(sqlStatementCounter.current()).isEqualTo(statementsBefore);
+    }
+
+    // 바뀐 회원의 변경 전/후 값이 걸리는 조건만 지운다.
+    @Test
+    void searchCacheInvalidationTest() {
+        MemberSearchCondition member1 = new MemberSearchCondition();
+        member1.setUsername("member1");
+        MemberSearchCondition member3 = new MemberSearchCondition();
+        member3.setUsername("member3");
+        MemberSearchCondition young = new MemberSearchCondition();
+        young.setAgeLoe(15);
+
+        memberSearchService.search(member1);
+        List<MemberTeamDto> cachedMember3 = memberSearchService.search(member3);
+        Page<MemberTeamDto> cachedYoung = memberSearchService.searchPage(young, PageRequest.of(0, 10));
+        assertThat(cachedYoung.getContent()).extracting("username").containsExactly("member1");
+
+        em.find(Member.class, 1L).setAge(50);
+        em.flush();
+
+        assertThat(memberSearchService.search(member3)).isSameAs(cachedMember3);
+        assertThat(memberSearchService.search(member1)).extracting("age").containsExactly(50);
+        assertThat(memberSearchService.searchPage(young, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    // 팀이 바뀌면 그 팀 이름으로 거르거나 그 팀의 회원이 들어 있는 결과만 지운다.
+    @Test
+    void searchCacheTeamInvalidationTest() {
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+        MemberSearchCondition teamB = new MemberSearchCondition();
+        teamB.setTeamName("teamB");
+        MemberSearchCondition young = new MemberSearchCondition();
+        young.setAgeLoe(15);
+        MemberSearchCondition old = new MemberSearchCondition();
+        old.setAgeGoe(30);
+
+        memberSearchService.search(teamA);
+        memberSearchService.search(young);
+        List<MemberTeamDto> cachedTeamB = memberSearchService.search(teamB);
+        List<MemberTeamDto> cachedOld = memberSearchService.search(old);
+
+        Team team = em.createQuery("select t from Team t where t.name = :name", Team.class)
+                .setParameter("name", "teamA")
+                .getSingleResult();
+        team.setName("teamC");
+        em.flush();
+
+        assertThat(memberSearchService.search(teamB)).isSameAs(cachedTeamB);
+        assertThat(memberSearchService.search(old)).isSameAs(cachedOld);
+        assertThat(memberSearchService.search(teamA)).isEmpty();
+        assertThat(memberSearchService.search(young)).extracting("teamName").containsExactly("teamC");
+    }
+
+    // 벌크 연산은 엔티티 리스너를 거치지 않으므로 캐시를 모두 비운다.
+    @Test
+    void searchCacheBulkInvalidationTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(30);
+        List<MemberTeamDto> cached = memberSearchService.search(condition);
+
+        memberBulkService.update(member.age.goe(30), update -> update.set(member.username, "비회원"));
+
+        List<MemberTeamDto> result = memberSearchService.search(condition);
+        assertThat(result).isNotSameAs(cached);
+        assertThat(result).extracting("username").containsOnly("비회원");
+    }
+}
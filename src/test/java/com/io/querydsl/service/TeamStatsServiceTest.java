@@ -0,0 +1,133 @@
+package com.io.querydsl.service;
+
+import com.io.querydsl.dto.TeamStatsDto;
+import com.io.querydsl.persistence.Member;
+import com.io.querydsl.persistence.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 팀 통계는 커밋된 변경만 반영하므로 이 테스트는 직접 커밋하고 정리한다.
+@SpringBootTest
+class TeamStatsServiceTest {
+
+    @Autowired EntityManager em;
+    @Autowired TeamStatsService teamStatsService;
+    @Autowired PlatformTransactionManager transactionManager;
+    TransactionTemplate transactionTemplate;
+    Long statsTeamId;
+    Long otherTeamId;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // 시작할 때 건 재구성이 아래 변경과 겹치지 않게 먼저 끝낸다.
+        teamStatsService.rebuild().join();
+        transactionTemplate.executeWithoutResult(status -> {
+            Team statsTeam = new Team("statsTeam");
+            Team otherTeam = new Team("otherStatsTeam");
+            em.persist(statsTeam);
+            em.persist(otherTeam);
+            em.persist(new Member(9201L, "statsMember1", 10, statsTeam));
+            em.persist(new Member(9202L, "statsMember2", 20, statsTeam));
+            em.persist(new Member(9203L, "statsMember3", 30, statsTeam));
+            statsTeamId = statsTeam.getId();
+            otherTeamId = otherTeam.getId();
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long id = 9201L; id <= 9204L; id++) {
+                Member member = em.find(Member.class, id);
+                if (member != null) {
+                    em.remove(member);
+                }
+            }
+            em.remove(em.find(Team.class, statsTeamId));
+            em.remove(em.find(Team.class, otherTeamId));
+        });
+        teamStatsService.rebuild().join();
+    }
+
+    // 추가/나이 변경/팀 이동/삭제가 커밋되면 그대로 반영되고, 다시 만든 결과와 같아야 한다.
+    @Test
+    void incrementalStatsTest() {
+        assertThat(statsOf(statsTeamId)).isEqualTo(new TeamStatsDto(statsTeamId, "statsTeam", 3, 20.0, 10, 30));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, 9203L).setAge(50);
+            em.find(Member.class, 9201L).changeTeam(em.find(Team.class, otherTeamId));
+        });
+        assertThat(statsOf(statsTeamId)).isEqualTo(new TeamStatsDto(statsTeamId, "statsTeam", 2, 35.0, 20, 50));
+        assertThat(statsOf(otherTeamId)).isEqualTo(new TeamStatsDto(otherTeamId, "otherStatsTeam", 1, 10.0, 10, 10));
+
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, 9203L)));
+        assertThat(statsOf(statsTeamId)).isEqualTo(new TeamStatsDto(statsTeamId, "statsTeam", 1, 20.0, 20, 20));
+
+        List<TeamStatsDto> incremental = teamStatsService.stats();
+        teamStatsService.rebuild().join();
+        assertThat(teamStatsService.stats()).isEqualTo(incremental);
+    }
+
+    // 재구성은 백그라운드에서 돌고, 그동안 커밋된 변경은 빠지지도 겹치지도 않는다.
+    // (집계 쿼리와 겹쳐 도착한 변경이 있으면 한 번 더 만들므로 최신이 될 때까지 기다린다)
+    @Test
+    void changesDuringRebuildKeptTest() {
+        CompletableFuture<Void> rebuilt = teamStatsService.invalidate();
+        transactionTemplate.executeWithoutResult(status ->
+                em.persist(new Member(9204L, "statsMember4", 40, em.find(Team.class, statsTeamId))));
+
+        rebuilt.join();
+        awaitFresh();
+
+        assertThat(statsOf(statsTeamId)).isEqualTo(new TeamStatsDto(statsTeamId, "statsTeam", 4, 25.0, 10, 40));
+    }
+
+    // 없는 나이를 빼라는 변경은 통계가 어긋났다는 뜻이므로 다시 만든다.
+    @Test
+    void mismatchTriggersRebuildTest() {
+        teamStatsService.memberRemoved(statsTeamId, 77);
+
+        awaitFresh();
+
+        assertThat(statsOf(statsTeamId)).isEqualTo(new TeamStatsDto(statsTeamId, "statsTeam", 3, 20.0, 10, 30));
+    }
+
+    // 롤백된 변경은 반영하지 않는다.
+    @Test
+    void rollbackIgnoredTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, 9201L).setAge(99);
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(statsOf(statsTeamId).getMaxAge()).isEqualTo(30);
+    }
+
+    private void awaitFresh() {
+        for (int i = 0; i < 10 && teamStatsService.isStale(); i++) {
+            teamStatsService.rebuild().join();
+        }
+        assertThat(teamStatsService.isStale()).isFalse();
+    }
+
+    private TeamStatsDto statsOf(Long teamId) {
+        return teamStatsService.stats().stream()
+                .filter(stats -> stats.getTeamId().equals(teamId))
+                .findFirst()
+                .orElseThrow();
+    }
+}